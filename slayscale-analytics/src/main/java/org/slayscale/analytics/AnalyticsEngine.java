@@ -0,0 +1,86 @@
+package org.slayscale.analytics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Similarity, follow graph and trust ranking over users identified by their IDs.
+ * The engine never reads the database: the caller loads it in bulk, keeps it up to
+ * date with single changes, and asks it questions in terms of IDs and product fingerprints.
+ * Implementations are thread-safe.
+ */
+public interface AnalyticsEngine {
+
+    /**
+     * Replace every user's product fingerprint. {@code fingerprints[i]} belongs to {@code userIds[i]}.
+     */
+    void loadFingerprints(long[] userIds, long[][] fingerprints);
+
+    void putFingerprint(long userId, long[] fingerprint);
+
+    /**
+     * Order fingerprints by their Jaccard similarity to the base fingerprint, most similar
+     * first, ties in their original order.
+     *
+     * @return The indexes into {@code fingerprints} in ranked order.
+     */
+    int[] rankBySimilarity(long[] baseFingerprint, long[][] fingerprints);
+
+    /**
+     * Get the IDs of up to {@code k} users likely to be the most similar to the base user,
+     * most similar first. The ranking is estimated and should be re-scored exactly.
+     */
+    List<Long> similarCandidates(long userId, long[] fingerprint, int k);
+
+    /**
+     * Get the exact {@code k} users most similar to the given user, most similar first,
+     * counting overlaps only among users who reviewed one of the same products.
+     */
+    List<CoReviewIndex.Match> topSimilar(long userId, int k);
+
+    /**
+     * Replace the follow graph. Edge {@code e} goes from {@code followerIds[e]} to {@code followingIds[e]}.
+     */
+    void loadFollowGraph(long[] followerIds, long[] followingIds, int edgeCount);
+
+    void follow(long followerId, long followingId);
+
+    void unfollow(long followerId, long followingId);
+
+    boolean isFollowing(long followerId, long followingId);
+
+    long[] followersOf(long userId);
+
+    /**
+     * Get the fewest follow hops from one user to another, or -1 if they aren't
+     * connected within {@code maxDepth} hops.
+     */
+    int separation(long fromId, long toId, int maxDepth);
+
+    /**
+     * Rank every user in the follow graph by PageRank and publish the result as the
+     * current {@link #trustRanking()}.
+     */
+    TrustRanking rankByTrust(double damping, double tolerance, int maxIterations);
+
+    /**
+     * Get the latest trust ranking, or {@link TrustRanking#EMPTY} before the first one.
+     */
+    TrustRanking trustRanking();
+
+    /**
+     * Write the follow graph and the product fingerprints to an {@link AnalyticsSnapshot} file.
+     *
+     * @param highWaterMark How far the caller's change history had got before the snapshot was taken.
+     */
+    void writeSnapshot(Path path, long highWaterMark) throws IOException;
+
+    /**
+     * Replace the follow graph and the product fingerprints with those in a snapshot file.
+     * Changes made after the snapshot was written have to be replayed by the caller.
+     *
+     * @return The snapshot's high-water mark.
+     */
+    long loadSnapshot(Path path) throws IOException;
+}
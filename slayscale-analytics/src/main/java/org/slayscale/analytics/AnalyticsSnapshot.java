@@ -0,0 +1,171 @@
+package org.slayscale.analytics;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A binary file holding the follow graph in CSR form and every user's distinct product IDs,
+ * so the engine can be restored without reading the database. The high-water mark records
+ * how far the caller's change history had got when the snapshot was taken.
+ *
+ * <p>Layout, little-endian: a 32-byte header (magic, format version, high-water mark, node
+ * count, edge count, fingerprint count, product count) followed by the sections
+ * {@code long[] nodeUserIds, long[] fingerprintUserIds, long[] products, int[] offsets,
+ * int[] targets, int[] productOffsets}. The long sections come first so every section is
+ * naturally aligned, and each one is read in chunks and copied out with bulk gets rather
+ * than parsed value by value.
+ */
+public record AnalyticsSnapshot(long highWaterMark, FollowGraph.Csr graph,
+                                long[] fingerprintUserIds, long[][] fingerprints) {
+
+    private static final int MAGIC = 0x534C5953; // "SLYS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int CHUNK_BYTES = 1 << 16;
+
+    /**
+     * Write the snapshot to a temporary file next to {@code path} and move it into place,
+     * so a crash part way through never leaves a truncated snapshot behind.
+     */
+    public void write(Path path) throws IOException {
+        int productCount = 0;
+        for (long[] fingerprint : fingerprints) {
+            productCount += fingerprint.length;
+        }
+        int[] productOffsets = new int[fingerprints.length + 1];
+        long[] products = new long[productCount];
+        for (int i = 0; i < fingerprints.length; i++) {
+            System.arraycopy(fingerprints[i], 0, products, productOffsets[i], fingerprints[i].length);
+            productOffsets[i + 1] = productOffsets[i] + fingerprints[i].length;
+        }
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(highWaterMark)
+                    .putInt(graph.nodeCount()).putInt(graph.targets().length)
+                    .putInt(fingerprintUserIds.length).putInt(productCount);
+            writeLongs(channel, buffer, graph.userIds());
+            writeLongs(channel, buffer, fingerprintUserIds);
+            writeLongs(channel, buffer, products);
+            writeInts(channel, buffer, graph.offsets());
+            writeInts(channel, buffer, graph.targets());
+            writeInts(channel, buffer, productOffsets);
+            flush(channel, buffer);
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a snapshot file, copying each section out in bulk. The header is checked before
+     * the rest of the file is read.
+     *
+     * @throws IOException If the file can't be read, isn't a snapshot, or was written
+     * in a different format version.
+     */
+    public static AnalyticsSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.size() < HEADER_BYTES) throw new IOException("Not a snapshot: " + path);
+            fill(channel, buffer, HEADER_BYTES);
+            if (buffer.getInt(0) != MAGIC) throw new IOException("Not a snapshot: " + path);
+            if (buffer.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + buffer.getInt(4) + ": " + path);
+            }
+            long highWaterMark = buffer.getLong(8);
+            int nodeCount = buffer.getInt(16);
+            int edgeCount = buffer.getInt(20);
+            int fingerprintCount = buffer.getInt(24);
+            int productCount = buffer.getInt(28);
+            long size = HEADER_BYTES + 8L * ((long) nodeCount + fingerprintCount + productCount)
+                    + 4L * ((long) nodeCount + 1 + edgeCount + fingerprintCount + 1);
+            if (nodeCount < 0 || edgeCount < 0 || fingerprintCount < 0 || productCount < 0
+                    || size != channel.size()) {
+                throw new IOException("Truncated snapshot: " + path);
+            }
+
+            long[] userIds = readLongs(channel, buffer, nodeCount);
+            long[] fingerprintUserIds = readLongs(channel, buffer, fingerprintCount);
+            long[] products = readLongs(channel, buffer, productCount);
+            int[] offsets = readInts(channel, buffer, nodeCount + 1);
+            int[] targets = readInts(channel, buffer, edgeCount);
+            int[] productOffsets = readInts(channel, buffer, fingerprintCount + 1);
+
+            long[][] fingerprints = new long[fingerprintCount][];
+            for (int i = 0; i < fingerprintCount; i++) {
+                fingerprints[i] = Arrays.copyOfRange(products, productOffsets[i], productOffsets[i + 1]);
+            }
+            return new AnalyticsSnapshot(highWaterMark, new FollowGraph.Csr(userIds, offsets, targets),
+                    fingerprintUserIds, fingerprints);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupt snapshot: " + path, e);
+        }
+    }
+
+    private static long[] readLongs(FileChannel channel, ByteBuffer buffer, int count) throws IOException {
+        long[] values = new long[count];
+        for (int i = 0; i < count; ) {
+            int n = Math.min(count - i, CHUNK_BYTES / Long.BYTES);
+            fill(channel, buffer, n * Long.BYTES);
+            buffer.asLongBuffer().get(values, i, n);
+            i += n;
+        }
+        return values;
+    }
+
+    private static int[] readInts(FileChannel channel, ByteBuffer buffer, int count) throws IOException {
+        int[] values = new int[count];
+        for (int i = 0; i < count; ) {
+            int n = Math.min(count - i, CHUNK_BYTES / Integer.BYTES);
+            fill(channel, buffer, n * Integer.BYTES);
+            buffer.asIntBuffer().get(values, i, n);
+            i += n;
+        }
+        return values;
+    }
+
+    // Read the next {@code bytes} bytes of the file into the start of the buffer.
+    private static void fill(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        buffer.clear().limit(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) throw new EOFException();
+        }
+        buffer.flip();
+    }
+
+    private static void writeLongs(FileChannel channel, ByteBuffer buffer, long[] values) throws IOException {
+        for (long value : values) {
+            if (buffer.remaining() < Long.BYTES) flush(channel, buffer);
+            buffer.putLong(value);
+        }
+    }
+
+    private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+        for (int value : values) {
+            if (buffer.remaining() < Integer.BYTES) flush(channel, buffer);
+            buffer.putInt(value);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
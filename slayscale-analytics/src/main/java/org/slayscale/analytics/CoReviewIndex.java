@@ -0,0 +1,132 @@
+package org.slayscale.analytics;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from product ID to the IDs of the users who reviewed it. Two users
+ * only have a non-zero Jaccard similarity if they reviewed a product in common, so
+ * the exact most similar users can be found by counting overlaps among co-reviewers
+ * alone. The cost depends on the size of that neighbourhood, not on the number of users.
+ */
+public class CoReviewIndex {
+
+    /**
+     * One user and their Jaccard similarity to the base user.
+     */
+    public record Match(long userId, double similarity) {
+    }
+
+    // Most similar first, ties by ID.
+    private static final Comparator<Match> RANKING =
+            Comparator.comparingDouble(Match::similarity).reversed().thenComparingLong(Match::userId);
+
+    private final Map<Long, Set<Long>> reviewersByProduct = new HashMap<>();
+    private final Map<Long, long[]> productsByUser = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Index or re-index a user from their product fingerprint.
+     * An empty fingerprint removes the user.
+     */
+    public void put(long userId, long[] fingerprint) {
+        long[] products = distinct(fingerprint);
+        lock.writeLock().lock();
+        try {
+            long[] old = products.length == 0 ? productsByUser.remove(userId) : productsByUser.put(userId, products);
+            if (old == null) old = ProductFingerprint.EMPTY;
+            // Both are sorted, so one merge pass finds the products added and removed.
+            int i = 0, j = 0;
+            while (i < old.length || j < products.length) {
+                if (j == products.length || (i < old.length && old[i] < products[j])) {
+                    removeReviewer(old[i++], userId);
+                } else if (i == old.length || products[j] < old[i]) {
+                    reviewersByProduct.computeIfAbsent(products[j++], p -> new HashSet<>()).add(userId);
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        put(userId, ProductFingerprint.EMPTY);
+    }
+
+    /** Get the number of users who reviewed at least one product. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return productsByUser.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a copy of every indexed user's distinct product IDs, sorted.
+     * The arrays themselves are shared and must not be modified.
+     */
+    public Map<Long, long[]> fingerprints() {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(productsByUser);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the exact {@code k} users most similar to the given user, most similar first.
+     * Users with a similarity of 0.0 are never included.
+     */
+    public List<Match> topSimilar(long userId, int k) {
+        if (k <= 0) return List.of();
+        PriorityQueue<Match> top = new PriorityQueue<>(k + 1, RANKING.reversed());
+
+        lock.readLock().lock();
+        try {
+            long[] products = productsByUser.get(userId);
+            if (products == null) return List.of();
+
+            Map<Long, Integer> overlaps = new HashMap<>();
+            for (long product : products) {
+                for (Long reviewer : reviewersByProduct.get(product)) {
+                    if (reviewer != userId) overlaps.merge(reviewer, 1, Integer::sum);
+                }
+            }
+            for (Map.Entry<Long, Integer> overlap : overlaps.entrySet()) {
+                int intersection = overlap.getValue();
+                int union = products.length + productsByUser.get(overlap.getKey()).length - intersection;
+                top.add(new Match(overlap.getKey(), (double) intersection / union));
+                if (top.size() > k) top.poll(); // drop the least similar
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Match> result = new ArrayList<>(top);
+        result.sort(RANKING);
+        return result;
+    }
+
+    private void removeReviewer(long productId, long userId) {
+        Set<Long> reviewers = reviewersByProduct.get(productId);
+        if (reviewers != null && reviewers.remove(userId) && reviewers.isEmpty()) {
+            reviewersByProduct.remove(productId);
+        }
+    }
+
+    private static long[] distinct(long[] fingerprint) {
+        long[] products = new long[ProductFingerprint.distinctCount(fingerprint)];
+        int n = 0;
+        for (int i = 0; i < fingerprint.length; i++) {
+            if (i == 0 || fingerprint[i] != fingerprint[i - 1]) products[n++] = fingerprint[i];
+        }
+        return products;
+    }
+}
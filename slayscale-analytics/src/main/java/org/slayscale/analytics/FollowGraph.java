@@ -0,0 +1,489 @@
+package org.slayscale.analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory follow graph over dense int node indexes. Edges live in compressed sparse
+ * row (CSR) arrays, one for "following" and one for "followers". Follows and
+ * unfollows go into a small delta: per-node lists of added edges and a set of
+ * removed ones. The delta is folded into new CSR arrays once it gets large, so the
+ * graph never has to be reloaded from the database.
+ */
+public class FollowGraph {
+
+    /**
+     * An immutable CSR copy of the following edges, e.g. for ranking.
+     * Node {@code i} is user {@code userIds[i]} and follows the nodes
+     * {@code targets[offsets[i] .. offsets[i + 1])}.
+     */
+    public record Csr(long[] userIds, int[] offsets, int[] targets) {
+        public int nodeCount() {
+            return offsets.length - 1;
+        }
+    }
+
+    private static final int[] NO_EDGES = new int[0];
+    private static final int MIN_COMPACTION_DELTA = 1024;
+
+    private final Map<Long, Integer> nodeOf = new HashMap<>();
+    private long[] userIds = new long[16];
+    private int nodeCount;
+
+    private int[] outOffsets = {0};
+    private int[] outTargets = NO_EDGES;
+    private int[] inOffsets = {0};
+    private int[] inTargets = NO_EDGES;
+
+    private int[][] addedOut = new int[16][];
+    private int[] addedOutSize = new int[16];
+    private int[][] addedIn = new int[16][];
+    private int[] addedInSize = new int[16];
+    private final Set<Long> removed = new HashSet<>();
+    private int deltaSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Build a graph from parallel arrays of edges, where {@code followerIds[i]}
+     * follows {@code followingIds[i]}.
+     */
+    public static FollowGraph fromEdges(long[] followerIds, long[] followingIds, int edgeCount) {
+        FollowGraph graph = new FollowGraph();
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            from[e] = graph.nodeFor(followerIds[e]);
+            to[e] = graph.nodeFor(followingIds[e]);
+        }
+        graph.rebuild(from, to, edgeCount);
+        return graph;
+    }
+
+    /**
+     * Build a graph from a {@link Csr} with sorted rows, as {@link #snapshot()} returns it,
+     * e.g. one read back from a snapshot. Node {@code i} keeps user {@code userIds[i]} and
+     * the arrays are taken over rather than copied, so only the "followers" side is built.
+     *
+     * @throws IllegalArgumentException If the rows aren't sorted, or a user ID or edge is invalid.
+     */
+    public static FollowGraph fromCsr(Csr csr) {
+        FollowGraph graph = new FollowGraph();
+        for (long userId : csr.userIds()) {
+            graph.nodeFor(userId);
+        }
+        int nodeCount = csr.nodeCount();
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+        if (graph.nodeCount != nodeCount || offsets[0] != 0 || offsets[nodeCount] != targets.length) {
+            throw new IllegalArgumentException("Inconsistent CSR arrays.");
+        }
+        int[] inOffsets = new int[nodeCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            if (offsets[node + 1] < offsets[node]) throw new IllegalArgumentException("Inconsistent CSR arrays.");
+            for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                if (targets[e] < 0 || targets[e] >= nodeCount || e > offsets[node] && targets[e] <= targets[e - 1]) {
+                    throw new IllegalArgumentException("CSR rows must hold sorted, distinct nodes.");
+                }
+                inOffsets[targets[e] + 1]++;
+            }
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            inOffsets[node + 1] += inOffsets[node];
+        }
+        // Walking the rows in node order leaves every "followers" row sorted as well.
+        int[] inTargets = new int[targets.length];
+        int[] inCursor = Arrays.copyOf(inOffsets, nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            for (int e = offsets[node]; e < offsets[node + 1]; e++) {
+                inTargets[inCursor[targets[e]]++] = node;
+            }
+        }
+        graph.outOffsets = offsets;
+        graph.outTargets = targets;
+        graph.inOffsets = inOffsets;
+        graph.inTargets = inTargets;
+        return graph;
+    }
+
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if the edge was not in the graph yet.
+     */
+    public boolean follow(long followerId, long followingId) {
+        lock.writeLock().lock();
+        try {
+            int from = nodeFor(followerId);
+            int to = nodeFor(followingId);
+            if (hasEdge(from, to)) return false;
+            if (!removed.remove(edgeKey(from, to))) {
+                addedOut[from] = append(addedOut[from], addedOutSize[from]++, to);
+                addedIn[to] = append(addedIn[to], addedInSize[to]++, from);
+            }
+            deltaSize++;
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if the edge was in the graph.
+     */
+    public boolean unfollow(long followerId, long followingId) {
+        lock.writeLock().lock();
+        try {
+            Integer from = nodeOf.get(followerId);
+            Integer to = nodeOf.get(followingId);
+            if (from == null || to == null || !hasEdge(from, to)) return false;
+            if (!removeAdded(from, to)) {
+                removed.add(edgeKey(from, to));
+            }
+            deltaSize++;
+            compactIfNeeded();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isFollowing(long followerId, long followingId) {
+        lock.readLock().lock();
+        try {
+            Integer from = nodeOf.get(followerId);
+            Integer to = nodeOf.get(followingId);
+            return from != null && to != null && hasEdge(from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the IDs of the users following the given user.
+     */
+    public long[] followersOf(long userId) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodeOf.get(userId);
+            if (node == null) return new long[0];
+            long[] result = new long[inDegree(node)];
+            int n = 0;
+            for (int e = inRowStart(node); e < inRowEnd(node); e++) {
+                int from = inTargets[e];
+                if (removed.isEmpty() || !removed.contains(edgeKey(from, node))) result[n++] = userIds[from];
+            }
+            for (int i = 0; i < addedInSize(node); i++) {
+                result[n++] = userIds[addedIn[node][i]];
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the fewest follow hops from one user to another, following edges
+     * from follower to followed. The search runs as a bidirectional BFS: forward
+     * from {@code fromId} along "following" edges and backward from {@code toId}
+     * along "followers" edges, always expanding the smaller frontier.
+     *
+     * @return The number of hops, or -1 if the users are not connected within {@code maxDepth} hops.
+     */
+    public int separation(long fromId, long toId, int maxDepth) {
+        if (fromId == toId) return 0;
+        lock.readLock().lock();
+        try {
+            Integer source = nodeOf.get(fromId);
+            Integer target = nodeOf.get(toId);
+            if (source == null || target == null) return -1;
+
+            // Sized by the nodes visited, not the whole graph, so a short search stays cheap.
+            DepthMap forwardDepth = new DepthMap();
+            DepthMap backwardDepth = new DepthMap();
+            forwardDepth.put(source, 0);
+            backwardDepth.put(target, 0);
+
+            int[] forward = {source};
+            int[] backward = {target};
+            int forwardSize = 1, backwardSize = 1;
+            int forwardLevel = 0, backwardLevel = 0;
+
+            while (forwardSize > 0 && backwardSize > 0 && forwardLevel + backwardLevel < maxDepth) {
+                int best = Integer.MAX_VALUE;
+                int[] next = new int[16];
+                int nextSize = 0;
+                if (forwardSize <= backwardSize) {
+                    for (int i = 0; i < forwardSize; i++) {
+                        int node = forward[i];
+                        for (int e = outRowStart(node); e < outRowEnd(node) + addedOutSize(node); e++) {
+                            int neighbour = outNeighbour(node, e);
+                            if (neighbour < 0 || forwardDepth.get(neighbour) >= 0) continue;
+                            forwardDepth.put(neighbour, forwardLevel + 1);
+                            int meet = backwardDepth.get(neighbour);
+                            if (meet >= 0) best = Math.min(best, forwardLevel + 1 + meet);
+                            next = append(next, nextSize++, neighbour);
+                        }
+                    }
+                    forward = next;
+                    forwardSize = nextSize;
+                    forwardLevel++;
+                } else {
+                    for (int i = 0; i < backwardSize; i++) {
+                        int node = backward[i];
+                        for (int e = inRowStart(node); e < inRowEnd(node) + addedInSize(node); e++) {
+                            int neighbour = inNeighbour(node, e);
+                            if (neighbour < 0 || backwardDepth.get(neighbour) >= 0) continue;
+                            backwardDepth.put(neighbour, backwardLevel + 1);
+                            int meet = forwardDepth.get(neighbour);
+                            if (meet >= 0) best = Math.min(best, backwardLevel + 1 + meet);
+                            next = append(next, nextSize++, neighbour);
+                        }
+                    }
+                    backward = next;
+                    backwardSize = nextSize;
+                    backwardLevel++;
+                }
+                // Every meeting point found while finishing this level is equally short or shorter
+                // than anything a later level could produce.
+                if (best != Integer.MAX_VALUE) return best <= maxDepth ? best : -1;
+            }
+            return -1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fold any pending follows and unfollows into the CSR arrays and return a copy of them.
+     */
+    public Csr snapshot() {
+        lock.writeLock().lock();
+        try {
+            compact();
+            return new Csr(Arrays.copyOf(userIds, nodeCount), outOffsets.clone(), outTargets.clone());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int nodeFor(long userId) {
+        Integer node = nodeOf.get(userId);
+        if (node != null) return node;
+        if (nodeCount == userIds.length) {
+            int capacity = userIds.length * 2;
+            userIds = Arrays.copyOf(userIds, capacity);
+            addedOut = Arrays.copyOf(addedOut, capacity);
+            addedOutSize = Arrays.copyOf(addedOutSize, capacity);
+            addedIn = Arrays.copyOf(addedIn, capacity);
+            addedInSize = Arrays.copyOf(addedInSize, capacity);
+        }
+        userIds[nodeCount] = userId;
+        nodeOf.put(userId, nodeCount);
+        return nodeCount++;
+    }
+
+    // Nodes added after the last compaction have no CSR row yet.
+    private int outRowStart(int node) {
+        return node < outOffsets.length ? outOffsets[node] : outTargets.length;
+    }
+
+    private int outRowEnd(int node) {
+        return node + 1 < outOffsets.length ? outOffsets[node + 1] : outTargets.length;
+    }
+
+    private int inRowStart(int node) {
+        return node < inOffsets.length ? inOffsets[node] : inTargets.length;
+    }
+
+    private int inRowEnd(int node) {
+        return node + 1 < inOffsets.length ? inOffsets[node + 1] : inTargets.length;
+    }
+
+    private int addedOutSize(int node) {
+        return addedOutSize[node];
+    }
+
+    private int addedInSize(int node) {
+        return addedInSize[node];
+    }
+
+    // Edge e of a node counts through its CSR row first and its added list after; removed edges read as -1.
+    private int outNeighbour(int node, int e) {
+        int csrEnd = outRowEnd(node);
+        if (e >= csrEnd) return addedOut[node][e - csrEnd];
+        int to = outTargets[e];
+        return !removed.isEmpty() && removed.contains(edgeKey(node, to)) ? -1 : to;
+    }
+
+    private int inNeighbour(int node, int e) {
+        int csrEnd = inRowEnd(node);
+        if (e >= csrEnd) return addedIn[node][e - csrEnd];
+        int from = inTargets[e];
+        return !removed.isEmpty() && removed.contains(edgeKey(from, node)) ? -1 : from;
+    }
+
+    private int inDegree(int node) {
+        int degree = addedInSize(node);
+        for (int e = inRowStart(node); e < inRowEnd(node); e++) {
+            if (removed.isEmpty() || !removed.contains(edgeKey(inTargets[e], node))) degree++;
+        }
+        return degree;
+    }
+
+    private boolean hasEdge(int from, int to) {
+        for (int i = 0; i < addedOutSize[from]; i++) {
+            if (addedOut[from][i] == to) return true;
+        }
+        // CSR rows are sorted by target, see rebuild
+        int start = outRowStart(from), end = outRowEnd(from);
+        return Arrays.binarySearch(outTargets, start, end, to) >= 0 && !removed.contains(edgeKey(from, to));
+    }
+
+    private boolean removeAdded(int from, int to) {
+        if (!removeFrom(addedOut, addedOutSize, from, to)) return false;
+        removeFrom(addedIn, addedInSize, to, from);
+        return true;
+    }
+
+    private static boolean removeFrom(int[][] lists, int[] sizes, int node, int value) {
+        int[] list = lists[node];
+        for (int i = 0; i < sizes[node]; i++) {
+            if (list[i] == value) {
+                list[i] = list[--sizes[node]];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void compactIfNeeded() {
+        if (deltaSize > Math.max(MIN_COMPACTION_DELTA, outTargets.length / 4)) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        if (deltaSize == 0 && outOffsets.length == nodeCount + 1) return;
+        int edgeCount = outTargets.length - removed.size();
+        for (int node = 0; node < nodeCount; node++) {
+            edgeCount += addedOutSize[node];
+        }
+        int[] from = new int[edgeCount];
+        int[] to = new int[edgeCount];
+        int n = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            for (int e = outRowStart(node); e < outRowEnd(node) + addedOutSize(node); e++) {
+                int neighbour = outNeighbour(node, e);
+                if (neighbour < 0) continue;
+                from[n] = node;
+                to[n++] = neighbour;
+            }
+        }
+        rebuild(from, to, n);
+    }
+
+    private void rebuild(int[] from, int[] to, int edgeCount) {
+        outOffsets = new int[nodeCount + 1];
+        inOffsets = new int[nodeCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            outOffsets[from[e] + 1]++;
+            inOffsets[to[e] + 1]++;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            outOffsets[node + 1] += outOffsets[node];
+            inOffsets[node + 1] += inOffsets[node];
+        }
+        outTargets = new int[edgeCount];
+        inTargets = new int[edgeCount];
+        int[] outCursor = Arrays.copyOf(outOffsets, nodeCount);
+        int[] inCursor = Arrays.copyOf(inOffsets, nodeCount);
+        for (int e = 0; e < edgeCount; e++) {
+            outTargets[outCursor[from[e]]++] = to[e];
+            inTargets[inCursor[to[e]]++] = from[e];
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            Arrays.sort(outTargets, outOffsets[node], outOffsets[node + 1]);
+        }
+
+        Arrays.fill(addedOut, 0, nodeCount, null);
+        Arrays.fill(addedOutSize, 0, nodeCount, 0);
+        Arrays.fill(addedIn, 0, nodeCount, null);
+        Arrays.fill(addedInSize, 0, nodeCount, 0);
+        removed.clear();
+        deltaSize = 0;
+    }
+
+    private static int[] append(int[] list, int size, int value) {
+        if (list == null) list = new int[4];
+        else if (size == list.length) list = Arrays.copyOf(list, size * 2);
+        list[size] = value;
+        return list;
+    }
+
+    private static long edgeKey(int from, int to) {
+        return ((long) from << 32) | (to & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The BFS depth of each node one search has reached, in an open-addressing table of
+     * primitive ints. Keys are stored as node + 1 so that 0 marks an empty slot.
+     */
+    private static final class DepthMap {
+        private int[] keys = new int[32];
+        private int[] depths = new int[32];
+        private int size;
+
+        // -1 if the node hasn't been reached.
+        int get(int node) {
+            int mask = keys.length - 1;
+            for (int i = slot(node, mask); keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == node + 1) return depths[i];
+            }
+            return -1;
+        }
+
+        // Only called for nodes not reached yet.
+        void put(int node, int depth) {
+            if (2 * (size + 1) > keys.length) grow();
+            insert(node + 1, depth);
+            size++;
+        }
+
+        private void insert(int key, int depth) {
+            int mask = keys.length - 1;
+            int i = slot(key - 1, mask);
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = key;
+            depths[i] = depth;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldDepths = depths;
+            keys = new int[oldKeys.length * 2];
+            depths = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) insert(oldKeys[i], oldDepths[i]);
+            }
+        }
+
+        private static int slot(int node, int mask) {
+            int hash = node * 0x9E3779B9;
+            return (hash ^ hash >>> 16) & mask;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.slayscale.analytics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@link AnalyticsEngine} holding everything in memory: a {@link MinHashLsh} and a
+ * {@link CoReviewIndex} of product fingerprints, a {@link FollowGraph}, and the latest
+ * {@link TrustRanking}. PageRank runs on the engine's own fork-join pool, so close the
+ * engine when it is no longer needed.
+ */
+public class InMemoryAnalyticsEngine implements AnalyticsEngine, AutoCloseable {
+    private final int lshBands;
+    private final int lshRows;
+    private final ForkJoinPool pool;
+
+    private volatile MinHashLsh lsh;
+    private volatile CoReviewIndex coReviews = new CoReviewIndex();
+    private volatile FollowGraph graph = new FollowGraph();
+    private volatile TrustRanking ranking = TrustRanking.EMPTY;
+
+    /**
+     * @param parallelism The number of threads ranking by trust, or 0 for one per processor.
+     */
+    public InMemoryAnalyticsEngine(int lshBands, int lshRows, int parallelism) {
+        this.lshBands = lshBands;
+        this.lshRows = lshRows;
+        this.lsh = new MinHashLsh(lshBands, lshRows);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public void loadFingerprints(long[] userIds, long[][] fingerprints) {
+        MinHashLsh lsh = new MinHashLsh(lshBands, lshRows);
+        CoReviewIndex coReviews = new CoReviewIndex();
+        for (int i = 0; i < userIds.length; i++) {
+            lsh.put(userIds[i], fingerprints[i]);
+            coReviews.put(userIds[i], fingerprints[i]);
+        }
+        this.lsh = lsh;
+        this.coReviews = coReviews;
+    }
+
+    @Override
+    public void putFingerprint(long userId, long[] fingerprint) {
+        lsh.put(userId, fingerprint);
+        coReviews.put(userId, fingerprint);
+    }
+
+    @Override
+    public int[] rankBySimilarity(long[] baseFingerprint, long[][] fingerprints) {
+        double[] scores = new double[fingerprints.length];
+        Integer[] order = new Integer[fingerprints.length];
+        for (int i = 0; i < fingerprints.length; i++) {
+            scores[i] = ProductFingerprint.jaccard(fingerprints[i], baseFingerprint);
+            order[i] = i;
+        }
+        // Arrays.sort on objects is stable, so ties keep their original order.
+        Arrays.sort(order, Comparator.comparingDouble(i -> -scores[i]));
+        return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public List<Long> similarCandidates(long userId, long[] fingerprint, int k) {
+        return lsh.candidates(userId, fingerprint, k);
+    }
+
+    @Override
+    public List<CoReviewIndex.Match> topSimilar(long userId, int k) {
+        return coReviews.topSimilar(userId, k);
+    }
+
+    @Override
+    public void loadFollowGraph(long[] followerIds, long[] followingIds, int edgeCount) {
+        graph = FollowGraph.fromEdges(followerIds, followingIds, edgeCount);
+    }
+
+    @Override
+    public void follow(long followerId, long followingId) {
+        graph.follow(followerId, followingId);
+    }
+
+    @Override
+    public void unfollow(long followerId, long followingId) {
+        graph.unfollow(followerId, followingId);
+    }
+
+    @Override
+    public boolean isFollowing(long followerId, long followingId) {
+        return graph.isFollowing(followerId, followingId);
+    }
+
+    @Override
+    public long[] followersOf(long userId) {
+        return graph.followersOf(userId);
+    }
+
+    @Override
+    public int separation(long fromId, long toId, int maxDepth) {
+        return graph.separation(fromId, toId, maxDepth);
+    }
+
+    @Override
+    public TrustRanking rankByTrust(double damping, double tolerance, int maxIterations) {
+        long start = System.nanoTime();
+        FollowGraph.Csr snapshot = graph.snapshot();
+        PageRank.Result result = PageRank.compute(snapshot, damping, tolerance, maxIterations, pool);
+        TrustRanking computed = new TrustRanking(result, snapshot.targets().length, Instant.now(), System.nanoTime() - start);
+        ranking = computed;
+        return computed;
+    }
+
+    @Override
+    public TrustRanking trustRanking() {
+        return ranking;
+    }
+
+    @Override
+    public void writeSnapshot(Path path, long highWaterMark) throws IOException {
+        Map<Long, long[]> fingerprints = coReviews.fingerprints();
+        long[] userIds = new long[fingerprints.size()];
+        long[][] products = new long[fingerprints.size()][];
+        int i = 0;
+        for (Map.Entry<Long, long[]> entry : fingerprints.entrySet()) {
+            userIds[i] = entry.getKey();
+            products[i++] = entry.getValue();
+        }
+        new AnalyticsSnapshot(highWaterMark, graph.snapshot(), userIds, products).write(path);
+    }
+
+    @Override
+    public long loadSnapshot(Path path) throws IOException {
+        AnalyticsSnapshot snapshot = AnalyticsSnapshot.read(path);
+        FollowGraph restored;
+        try {
+            restored = FollowGraph.fromCsr(snapshot.graph());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt snapshot: " + path, e);
+        }
+        loadFingerprints(snapshot.fingerprintUserIds(), snapshot.fingerprints());
+        graph = restored;
+        return snapshot.highWaterMark();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
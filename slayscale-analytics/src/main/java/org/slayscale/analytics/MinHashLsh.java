@@ -0,0 +1,152 @@
+package org.slayscale.analytics;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * MinHash signatures over product fingerprints, bucketed by band for
+ * locality-sensitive lookup of users with a similar set of reviewed products.
+ * Two users land in the same bucket of at least one band with probability
+ * 1 - (1 - s^rows)^bands, where s is their Jaccard similarity.
+ */
+public class MinHashLsh {
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+
+    private final Map<Long, int[]> signatures = new HashMap<>();
+    private final List<Map<Long, Set<Long>>> buckets = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public MinHashLsh(int bands, int rows) {
+        if (bands <= 0 || rows <= 0) throw new IllegalArgumentException("bands and rows must be positive.");
+        this.bands = bands;
+        this.rows = rows;
+        this.seeds = new long[bands * rows];
+        Random random = new Random(0x5eed_51a5L);
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+        for (int b = 0; b < bands; b++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Index or re-index a user. An empty fingerprint removes the user, since
+     * their similarity to anyone is 0.0.
+     */
+    public void put(long userId, long[] fingerprint) {
+        int[] signature = fingerprint.length == 0 ? null : signature(fingerprint);
+        lock.writeLock().lock();
+        try {
+            removeLocked(userId);
+            if (signature == null) return;
+            signatures.put(userId, signature);
+            for (int b = 0; b < bands; b++) {
+                buckets.get(b).computeIfAbsent(bandKey(signature, b), k -> new HashSet<>()).add(userId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return signatures.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get up to {@code k} users sharing a bucket with the given fingerprint,
+     * most similar first by estimated Jaccard similarity.
+     *
+     * @param userId The user to exclude from the result.
+     */
+    public List<Long> candidates(long userId, long[] fingerprint, int k) {
+        if (fingerprint.length == 0 || k <= 0) return List.of();
+        int[] signature = signature(fingerprint);
+
+        Map<Long, Double> estimates = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (int b = 0; b < bands; b++) {
+                Set<Long> bucket = buckets.get(b).get(bandKey(signature, b));
+                if (bucket == null) continue;
+                for (Long candidate : bucket) {
+                    if (candidate == userId || estimates.containsKey(candidate)) continue;
+                    estimates.put(candidate, estimate(signature, signatures.get(candidate)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return estimates.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(k)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private void removeLocked(long userId) {
+        int[] old = signatures.remove(userId);
+        if (old == null) return;
+        for (int b = 0; b < bands; b++) {
+            Map<Long, Set<Long>> band = buckets.get(b);
+            long key = bandKey(old, b);
+            Set<Long> bucket = band.get(key);
+            if (bucket != null && bucket.remove(userId) && bucket.isEmpty()) {
+                band.remove(key);
+            }
+        }
+    }
+
+    private int[] signature(long[] fingerprint) {
+        int[] signature = new int[seeds.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long productId : fingerprint) {
+            for (int i = 0; i < seeds.length; i++) {
+                int h = (int) (mix(productId ^ seeds[i]) >>> 33);
+                if (h < signature[i]) signature[i] = h;
+            }
+        }
+        return signature;
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int r = band * rows; r < (band + 1) * rows; r++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[r];
+        }
+        return mix(key);
+    }
+
+    private static double estimate(int[] a, int[] b) {
+        int matches = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) matches++;
+        }
+        return (double) matches / a.length;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,79 @@
+package org.slayscale.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Static helpers for a user's product fingerprint: a sorted {@code long[]} of the
+ * IDs of the products they reviewed. The array is a multiset, i.e., a product
+ * reviewed twice appears twice, so removing one of those reviews keeps the other.
+ * Set operations only ever look at distinct IDs.
+ */
+public final class ProductFingerprint {
+    public static final long[] EMPTY = new long[0];
+
+    private ProductFingerprint() {}
+
+    /**
+     * Returns a copy of the fingerprint with the product ID inserted in sorted position.
+     */
+    public static long[] insert(long[] fingerprint, long productId) {
+        int pos = Arrays.binarySearch(fingerprint, productId);
+        if (pos < 0) pos = -pos - 1;
+        long[] result = new long[fingerprint.length + 1];
+        System.arraycopy(fingerprint, 0, result, 0, pos);
+        result[pos] = productId;
+        System.arraycopy(fingerprint, pos, result, pos + 1, fingerprint.length - pos);
+        return result;
+    }
+
+    /**
+     * Returns a copy of the fingerprint with one occurrence of the product ID removed,
+     * or the same array if the product ID is not present.
+     */
+    public static long[] remove(long[] fingerprint, long productId) {
+        int pos = Arrays.binarySearch(fingerprint, productId);
+        if (pos < 0) return fingerprint;
+        long[] result = new long[fingerprint.length - 1];
+        System.arraycopy(fingerprint, 0, result, 0, pos);
+        System.arraycopy(fingerprint, pos + 1, result, pos, fingerprint.length - pos - 1);
+        return result;
+    }
+
+    /**
+     * @return The number of distinct product IDs in the fingerprint.
+     */
+    public static int distinctCount(long[] fingerprint) {
+        int count = 0;
+        for (int i = 0; i < fingerprint.length; i++) {
+            if (i == 0 || fingerprint[i] != fingerprint[i - 1]) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Get the Jaccard similarity of two fingerprints with a single merge pass
+     * over both arrays. Nothing is allocated.
+     *
+     * @return The Jaccard similarity between 0.0 and 1.0, or 0.0 if both are empty.
+     */
+    public static double jaccard(long[] a, long[] b) {
+        int i = 0, j = 0;
+        int intersection = 0, union = 0;
+        while (i < a.length || j < b.length) {
+            long next;
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                next = a[i];
+            } else if (i == a.length || b[j] < a[i]) {
+                next = b[j];
+            } else {
+                next = a[i];
+                intersection++;
+            }
+            union++;
+            // skip every duplicate of the value we just counted on both sides
+            while (i < a.length && a[i] == next) i++;
+            while (j < b.length && b[j] == next) j++;
+        }
+        return union == 0 ? 0.0d : (double) intersection / union;
+    }
+}
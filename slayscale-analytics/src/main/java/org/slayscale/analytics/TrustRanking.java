@@ -0,0 +1,95 @@
+package org.slayscale.analytics;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable snapshot of the PageRank trust scores of every user in the follow
+ * graph. Request threads read it without locking; a recompute publishes a new one.
+ */
+public final class TrustRanking {
+    public static final TrustRanking EMPTY = new TrustRanking(
+            new PageRank.Result(new long[0], new double[0], 0, 0, true), 0, Instant.EPOCH, 0);
+
+    private final long[] idsByRank;
+    private final long[] sortedIds;
+    private final double[] scoresBySortedId;
+    private final int edgeCount;
+    private final Instant computedAt;
+    private final long durationNanos;
+    private final int iterations;
+    private final double residual;
+    private final boolean converged;
+
+    public TrustRanking(PageRank.Result result, int edgeCount, Instant computedAt, long durationNanos) {
+        int n = result.userIds().length;
+        long[] userIds = result.userIds();
+        double[] ranks = result.ranks();
+
+        // Highest score first, ties by ID.
+        this.idsByRank = IntStream.range(0, n).boxed()
+                .sorted(Comparator.<Integer>comparingDouble(i -> -ranks[i]).thenComparingLong(i -> userIds[i]))
+                .mapToLong(i -> userIds[i])
+                .toArray();
+
+        Integer[] byId = IntStream.range(0, n).boxed().toArray(Integer[]::new);
+        Arrays.sort(byId, Comparator.comparingLong(i -> userIds[i]));
+        this.sortedIds = new long[n];
+        this.scoresBySortedId = new double[n];
+        for (int i = 0; i < n; i++) {
+            sortedIds[i] = userIds[byId[i]];
+            scoresBySortedId[i] = ranks[byId[i]];
+        }
+
+        this.edgeCount = edgeCount;
+        this.computedAt = computedAt;
+        this.durationNanos = durationNanos;
+        this.iterations = result.iterations();
+        this.residual = result.residual();
+        this.converged = result.converged();
+    }
+
+    /**
+     * Get the trust score of a user, 0.0 if they weren't in the follow graph
+     * when the ranking was computed.
+     */
+    public double score(long userId) {
+        int i = Arrays.binarySearch(sortedIds, userId);
+        return i >= 0 ? scoresBySortedId[i] : 0.0;
+    }
+
+    /** Get the IDs of up to {@code k} users with the highest score, highest first. */
+    public long[] top(int k) {
+        return Arrays.copyOf(idsByRank, Math.min(k, idsByRank.length));
+    }
+
+    public int userCount() {
+        return sortedIds.length;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public Instant getComputedAt() {
+        return computedAt;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public double getResidual() {
+        return residual;
+    }
+
+    public boolean isConverged() {
+        return converged;
+    }
+}
@@ -0,0 +1,105 @@
+package org.slayscale.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnalyticsSnapshotTest {
+
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("analytics-snapshot");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                file.toFile().delete();
+            }
+        }
+        directory.toFile().delete();
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        FollowGraph graph = FollowGraph.fromEdges(new long[]{10, 10, 20, 30}, new long[]{20, 30, 30, 10}, 4);
+        graph.follow(40, 10);
+        graph.unfollow(10, 20);
+        AnalyticsSnapshot written = new AnalyticsSnapshot(1234, graph.snapshot(),
+                new long[]{10, 20}, new long[][]{{1, 2, 3}, {}});
+        Path path = directory.resolve("analytics.snapshot");
+        written.write(path);
+
+        AnalyticsSnapshot read = AnalyticsSnapshot.read(path);
+        assertEquals(1234, read.highWaterMark());
+        assertArrayEquals(written.graph().userIds(), read.graph().userIds());
+        assertArrayEquals(written.graph().offsets(), read.graph().offsets());
+        assertArrayEquals(written.graph().targets(), read.graph().targets());
+        assertArrayEquals(new long[]{10, 20}, read.fingerprintUserIds());
+        assertTrue(Arrays.deepEquals(new long[][]{{1, 2, 3}, {}}, read.fingerprints()));
+
+        FollowGraph restored = FollowGraph.fromCsr(read.graph());
+        assertEquals(4, restored.snapshot().targets().length);
+        assertTrue(restored.isFollowing(40, 10));
+        assertFalse(restored.isFollowing(10, 20));
+        long[] followers = restored.followersOf(30);
+        Arrays.sort(followers);
+        assertArrayEquals(new long[]{10, 20}, followers);
+        assertEquals(2, restored.separation(20, 10, 6));
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path path = directory.resolve("analytics.snapshot");
+        Files.write(path, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> AnalyticsSnapshot.read(path));
+
+        new AnalyticsSnapshot(1, new FollowGraph().snapshot(), new long[0], new long[0][]).write(path);
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(4, 99);
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> AnalyticsSnapshot.read(path));
+
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, () -> AnalyticsSnapshot.read(path));
+    }
+
+    @Test
+    void engineRejectsUnsortedRows() throws IOException {
+        Path path = directory.resolve("analytics.snapshot");
+        FollowGraph.Csr unsorted = new FollowGraph.Csr(new long[]{1, 2, 3}, new int[]{0, 2, 2, 2}, new int[]{2, 1});
+        new AnalyticsSnapshot(1, unsorted, new long[0], new long[0][]).write(path);
+        try (InMemoryAnalyticsEngine engine = new InMemoryAnalyticsEngine(32, 2, 1)) {
+            assertThrows(IOException.class, () -> engine.loadSnapshot(path));
+        }
+    }
+
+    @Test
+    void engineRestoresFromSnapshot() throws IOException {
+        Path path = directory.resolve("analytics.snapshot");
+        try (InMemoryAnalyticsEngine engine = new InMemoryAnalyticsEngine(32, 2, 1)) {
+            engine.loadFollowGraph(new long[]{1, 2}, new long[]{2, 3}, 2);
+            engine.loadFingerprints(new long[]{1, 2, 3}, new long[][]{{5, 6}, {5, 6, 6}, {}});
+            engine.writeSnapshot(path, 42);
+        }
+        try (InMemoryAnalyticsEngine engine = new InMemoryAnalyticsEngine(32, 2, 1)) {
+            assertEquals(42, engine.loadSnapshot(path));
+            assertTrue(engine.isFollowing(2, 3));
+            assertEquals(2, engine.separation(1, 3, 6));
+            assertEquals(1.0, engine.topSimilar(1, 1).get(0).similarity());
+            assertEquals(2L, engine.topSimilar(1, 1).get(0).userId());
+        }
+    }
+}
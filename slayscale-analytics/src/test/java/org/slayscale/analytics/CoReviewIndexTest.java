@@ -0,0 +1,80 @@
+package org.slayscale.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CoReviewIndexTest {
+    private CoReviewIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new CoReviewIndex();
+        index.put(1L, new long[]{1, 2, 3, 4});
+        index.put(2L, new long[]{1, 2, 3, 4});   // identical
+        index.put(3L, new long[]{1, 2, 2, 5});   // 2/5, the duplicate review counts once
+        index.put(4L, new long[]{4, 6, 7, 8});   // 1/7
+        index.put(5L, new long[]{100, 101});      // disjoint
+    }
+
+    private static List<Long> ids(List<CoReviewIndex.Match> matches) {
+        return matches.stream().map(CoReviewIndex.Match::userId).toList();
+    }
+
+    @Test
+    void topSimilarIsExact() {
+        List<CoReviewIndex.Match> matches = index.topSimilar(1L, 10);
+        assertEquals(List.of(2L, 3L, 4L), ids(matches));
+        assertEquals(1.0, matches.get(0).similarity());
+        assertEquals(2.0 / 5, matches.get(1).similarity());
+        assertEquals(1.0 / 7, matches.get(2).similarity());
+
+        assertEquals(List.of(2L, 3L), ids(index.topSimilar(1L, 2)));
+        assertEquals(List.of(), index.topSimilar(5L, 10));
+        assertEquals(List.of(), index.topSimilar(99L, 10));
+    }
+
+    @Test
+    void reindexingUpdatesPostings() {
+        index.put(2L, new long[]{100});
+        assertEquals(List.of(3L, 4L), ids(index.topSimilar(1L, 10)));
+        assertEquals(List.of(5L), ids(index.topSimilar(2L, 10)));
+
+        index.remove(3L);
+        assertEquals(List.of(4L), ids(index.topSimilar(1L, 10)));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void matchesBruteForce() {
+        Random random = new Random(11);
+        List<long[]> fingerprints = new ArrayList<>();
+        CoReviewIndex large = new CoReviewIndex();
+        for (int user = 0; user < 500; user++) {
+            long[] fingerprint = new long[1 + random.nextInt(8)];
+            for (int i = 0; i < fingerprint.length; i++) {
+                fingerprint[i] = random.nextInt(200);
+            }
+            Arrays.sort(fingerprint);
+            fingerprints.add(fingerprint);
+            large.put(user, fingerprint);
+        }
+
+        List<CoReviewIndex.Match> expected = new ArrayList<>();
+        for (int user = 1; user < fingerprints.size(); user++) {
+            double similarity = ProductFingerprint.jaccard(fingerprints.get(0), fingerprints.get(user));
+            if (similarity > 0) expected.add(new CoReviewIndex.Match(user, similarity));
+        }
+        expected.sort(Comparator.comparingDouble(CoReviewIndex.Match::similarity).reversed()
+                .thenComparingLong(CoReviewIndex.Match::userId));
+
+        assertEquals(expected.subList(0, 10), large.topSimilar(0, 10));
+    }
+}
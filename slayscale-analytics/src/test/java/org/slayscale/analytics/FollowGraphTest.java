@@ -0,0 +1,101 @@
+package org.slayscale.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FollowGraphTest {
+    private FollowGraph graph;
+
+    @BeforeEach
+    public void setUp() {
+        // 1 -> 2 -> 3 -> 4, 1 -> 5 -> 4, 6 is on its own
+        graph = FollowGraph.fromEdges(
+                new long[]{1, 2, 3, 1, 5},
+                new long[]{2, 3, 4, 5, 4},
+                5);
+        graph.follow(6, 106);
+        graph.unfollow(6, 106);
+    }
+
+    @Test
+    void separation() {
+        assertEquals(0, graph.separation(1, 1, 6));
+        assertEquals(1, graph.separation(1, 2, 6));
+        assertEquals(2, graph.separation(1, 3, 6));
+        assertEquals(2, graph.separation(1, 4, 6)); // through 5
+        assertEquals(-1, graph.separation(4, 1, 6)); // follows are directed
+        assertEquals(-1, graph.separation(1, 6, 6));
+        assertEquals(-1, graph.separation(1, 999, 6));
+
+        // depth cutoff
+        assertEquals(-1, graph.separation(1, 4, 1));
+        assertEquals(2, graph.separation(1, 4, 2));
+    }
+
+    @Test
+    void separationVisitingManyNodes() {
+        FollowGraph wide = new FollowGraph();
+        for (long user = 1; user <= 5_000; user++) {
+            wide.follow(0, user);
+            wide.follow(user, 10_000);
+            wide.follow(user, 20_000 + user);
+        }
+        wide.follow(10_000, 10_001);
+        assertEquals(3, wide.separation(0, 10_001, 6));
+        assertEquals(2, wide.separation(0, 24_999, 6));
+        for (long user = 30_000; user < 30_300; user++) {
+            wide.follow(user, user + 1);
+        }
+        assertEquals(300, wide.separation(30_000, 30_300, 300));
+        assertEquals(-1, wide.separation(30_000, 30_300, 299));
+    }
+
+    @Test
+    void followAndUnfollowUpdateSeparation() {
+        assertTrue(graph.follow(4, 1));
+        assertFalse(graph.follow(4, 1));
+        assertEquals(1, graph.separation(4, 1, 6));
+        assertEquals(3, graph.separation(3, 5, 6));
+
+        assertTrue(graph.unfollow(1, 5));
+        assertFalse(graph.unfollow(1, 5));
+        assertEquals(3, graph.separation(1, 4, 6));
+        assertTrue(graph.isFollowing(1, 2));
+        assertFalse(graph.isFollowing(1, 5));
+
+        // re-adding an edge that was removed from the CSR arrays
+        assertTrue(graph.follow(1, 5));
+        assertEquals(2, graph.separation(1, 4, 6));
+    }
+
+    @Test
+    void followersOf() {
+        graph.follow(7, 4);
+        graph.unfollow(3, 4);
+        long[] followers = graph.followersOf(4);
+        Arrays.sort(followers);
+        assertArrayEquals(new long[]{5, 7}, followers);
+        assertArrayEquals(new long[0], graph.followersOf(999));
+    }
+
+    @Test
+    void compactionKeepsEdges() {
+        // a long chain of new users, enough follows to fold the delta into the CSR arrays
+        for (long user = 1000; user < 3000; user++) {
+            graph.follow(user, user + 1);
+        }
+        graph.unfollow(1500, 1501);
+        assertEquals(499, graph.separation(1001, 1500, 1000));
+        assertEquals(-1, graph.separation(1001, 1501, 1000));
+        assertTrue(graph.isFollowing(2999, 3000));
+
+        FollowGraph.Csr csr = graph.snapshot();
+        assertEquals(graph.nodeCount(), csr.nodeCount());
+        assertEquals(5 + 2000 - 1, csr.targets().length);
+        assertEquals(2, graph.separation(1, 4, 6));
+    }
+}
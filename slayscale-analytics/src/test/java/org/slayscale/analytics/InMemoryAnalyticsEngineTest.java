@@ -0,0 +1,70 @@
+package org.slayscale.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryAnalyticsEngineTest {
+    private InMemoryAnalyticsEngine engine;
+
+    @BeforeEach
+    public void setUp() {
+        engine = new InMemoryAnalyticsEngine(32, 2, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void rankBySimilarityKeepsTiesInOrder() {
+        long[] base = {1, 2, 3, 4};
+        long[][] fingerprints = {
+                {9},          // 0.0
+                {1, 2},       // 0.5
+                {1, 2, 3, 4}, // 1.0
+                {},           // 0.0
+                {3, 4},       // 0.5
+        };
+        assertArrayEquals(new int[]{2, 1, 4, 0, 3}, engine.rankBySimilarity(base, fingerprints));
+        assertArrayEquals(new int[0], engine.rankBySimilarity(base, new long[0][]));
+    }
+
+    @Test
+    void loadFingerprintsReplacesTheIndexes() {
+        engine.putFingerprint(9L, new long[]{1, 2});
+        engine.loadFingerprints(new long[]{1, 2, 3}, new long[][]{{1, 2, 3}, {1, 2}, {7}});
+
+        List<CoReviewIndex.Match> matches = engine.topSimilar(1L, 10);
+        assertEquals(List.of(new CoReviewIndex.Match(2L, 2.0 / 3)), matches);
+        assertEquals(List.of(2L), engine.similarCandidates(1L, new long[]{1, 2, 3}, 10));
+
+        engine.putFingerprint(3L, new long[]{1, 2, 3});
+        assertEquals(3L, engine.topSimilar(1L, 1).get(0).userId());
+    }
+
+    @Test
+    void followGraphAndTrustRanking() {
+        assertSame(TrustRanking.EMPTY, engine.trustRanking());
+        engine.loadFollowGraph(new long[]{1, 2}, new long[]{2, 3}, 2);
+        engine.follow(3L, 1L);
+        engine.unfollow(1L, 2L);
+
+        assertTrue(engine.isFollowing(3L, 1L));
+        assertFalse(engine.isFollowing(1L, 2L));
+        assertArrayEquals(new long[]{3}, engine.followersOf(1L));
+        assertEquals(2, engine.separation(2L, 1L, 6));
+        assertEquals(-1, engine.separation(1L, 2L, 6));
+
+        TrustRanking ranking = engine.rankByTrust(0.85, 1e-9, 100);
+        assertSame(ranking, engine.trustRanking());
+        assertEquals(3, ranking.userCount());
+        assertEquals(2, ranking.getEdgeCount());
+        assertEquals(1L, ranking.top(1)[0]);
+    }
+}
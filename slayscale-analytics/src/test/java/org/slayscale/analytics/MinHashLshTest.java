@@ -0,0 +1,88 @@
+package org.slayscale.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinHashLshTest {
+    private MinHashLsh lsh;
+
+    @BeforeEach
+    public void setUp() {
+        lsh = new MinHashLsh(32, 4);
+    }
+
+    @Test
+    void candidatesRankedBySimilarity() {
+        lsh.put(1L, new long[]{1, 2, 3, 4, 5, 6, 7, 8});
+        lsh.put(2L, new long[]{1, 2, 3, 4, 5, 6, 7, 8});      // identical
+        lsh.put(3L, new long[]{1, 2, 3, 4, 5, 6, 7, 9});      // 7/9 overlap
+        lsh.put(4L, new long[]{100, 101, 102, 103, 104});      // disjoint
+
+        List<Long> candidates = lsh.candidates(1L, new long[]{1, 2, 3, 4, 5, 6, 7, 8}, 10);
+        assertEquals(List.of(2L, 3L), candidates);
+
+        assertEquals(List.of(2L), lsh.candidates(1L, new long[]{1, 2, 3, 4, 5, 6, 7, 8}, 1));
+    }
+
+    @Test
+    void putReplacesAndEmptyRemoves() {
+        lsh.put(1L, new long[]{1, 2, 3});
+        lsh.put(2L, new long[]{1, 2, 3});
+        assertEquals(2, lsh.size());
+        assertEquals(List.of(2L), lsh.candidates(1L, new long[]{1, 2, 3}, 5));
+
+        lsh.put(2L, new long[]{7, 8, 9});
+        assertEquals(List.of(), lsh.candidates(1L, new long[]{1, 2, 3}, 5));
+
+        lsh.put(2L, new long[0]);
+        assertEquals(1, lsh.size());
+        lsh.remove(1L);
+        assertEquals(0, lsh.size());
+        assertEquals(List.of(), lsh.candidates(3L, new long[0], 5));
+    }
+
+    @Test
+    void recallAtTheConfiguredRows() {
+        // 7 of the query's 20 products and 13 others: a Jaccard similarity of 7/33, about 0.21,
+        // which is typical of users with a handful of products in common.
+        assertTrue(recall(2, 7, 13) > 0.6);
+        assertTrue(recall(4, 7, 13) < 0.2);
+        // Near duplicates, at 15/25 = 0.6, are found at either setting.
+        assertTrue(recall(2, 15, 5) > 0.9);
+        assertTrue(recall(4, 15, 5) > 0.9);
+        // Two rows still rarely let through users with a single product in common, at 1/39.
+        assertTrue(recall(2, 1, 19) < 0.1);
+    }
+
+    // The share of 200 users with `shared` of the query's 20 products and `own` others
+    // that the index returns as candidates.
+    private static double recall(int rows, int shared, int own) {
+        MinHashLsh index = new MinHashLsh(32, rows);
+        long[] query = new long[20];
+        for (int i = 0; i < query.length; i++) {
+            query[i] = i + 1;
+        }
+        int users = 200;
+        for (int user = 1; user <= users; user++) {
+            long[] fingerprint = new long[shared + own];
+            for (int i = 0; i < shared; i++) {
+                fingerprint[i] = query[(user + i) % query.length];
+            }
+            for (int i = 0; i < own; i++) {
+                fingerprint[shared + i] = 1_000L * user + i;
+            }
+            index.put(user, fingerprint);
+        }
+        return index.candidates(0, query, users).size() / (double) users;
+    }
+
+    @Test
+    void invalidBands() {
+        assertThrows(IllegalArgumentException.class, () -> new MinHashLsh(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new MinHashLsh(4, 0));
+    }
+}
@@ -0,0 +1,94 @@
+package org.slayscale.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageRankTest {
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static double rankOf(PageRank.Result result, long userId) {
+        for (int i = 0; i < result.userIds().length; i++) {
+            if (result.userIds()[i] == userId) return result.ranks()[i];
+        }
+        throw new AssertionError("No rank for " + userId);
+    }
+
+    @Test
+    void cycleIsUniform() {
+        FollowGraph graph = FollowGraph.fromEdges(new long[]{1, 2, 3}, new long[]{2, 3, 1}, 3);
+        PageRank.Result result = PageRank.compute(graph.snapshot(), 0.85, 1e-9, 100, pool);
+        assertTrue(result.converged());
+        for (long id = 1; id <= 3; id++) {
+            assertEquals(1.0 / 3, rankOf(result, id), 1e-9);
+        }
+    }
+
+    @Test
+    void trustFlowsThroughFollows() {
+        // 2, 3 and 4 follow 1; 1 follows 5; 6 follows 7, which follows nobody
+        FollowGraph graph = FollowGraph.fromEdges(
+                new long[]{2, 3, 4, 1, 6},
+                new long[]{1, 1, 1, 5, 7},
+                5);
+        PageRank.Result result = PageRank.compute(graph.snapshot(), 0.85, 1e-10, 200, pool);
+
+        assertTrue(result.converged());
+        assertEquals(1.0, Arrays.stream(result.ranks()).sum(), 1e-9);
+        // 5 has one follower, like 7, but it is a trusted one
+        assertTrue(rankOf(result, 5) > rankOf(result, 7));
+        assertTrue(rankOf(result, 1) > rankOf(result, 7));
+        assertTrue(rankOf(result, 7) > rankOf(result, 6));
+        assertEquals(rankOf(result, 2), rankOf(result, 3), 1e-12);
+    }
+
+    @Test
+    void parallelMatchesSequential() {
+        int users = 50_000;
+        int edges = 200_000;
+        Random random = new Random(7);
+        long[] from = new long[edges];
+        long[] to = new long[edges];
+        for (int e = 0; e < edges; e++) {
+            from[e] = random.nextInt(users);
+            to[e] = (long) Math.sqrt(random.nextInt(users) * (double) users); // skewed towards high IDs
+            if (from[e] == to[e]) to[e] = (to[e] + 1) % users;
+        }
+        FollowGraph.Csr graph = FollowGraph.fromEdges(from, to, edges).snapshot();
+
+        PageRank.Result parallel = PageRank.compute(graph, 0.85, 1e-8, 100, pool);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            PageRank.Result sequential = PageRank.compute(graph, 0.85, 1e-8, 100, single);
+            assertEquals(sequential.iterations(), parallel.iterations());
+            assertArrayEquals(sequential.ranks(), parallel.ranks(), 1e-12);
+        } finally {
+            single.shutdownNow();
+        }
+        assertEquals(1.0, Arrays.stream(parallel.ranks()).sum(), 1e-6);
+    }
+
+    @Test
+    void emptyGraph() {
+        PageRank.Result result = PageRank.compute(new FollowGraph().snapshot(), 0.85, 1e-6, 100, pool);
+        assertEquals(0, result.ranks().length);
+        assertThrows(IllegalArgumentException.class,
+                () -> PageRank.compute(new FollowGraph().snapshot(), 1.0, 1e-6, 100, pool));
+    }
+}
@@ -0,0 +1,66 @@
+package org.slayscale;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+
+/**
+ * Generates reproducible users, products and reviews for the benchmarks.
+ */
+public final class BenchmarkData {
+    public final List<User> users;
+    public final List<Product> products;
+
+    private BenchmarkData(List<User> users, List<Product> products) {
+        this.users = users;
+        this.products = products;
+    }
+
+    /**
+     * Products are drawn with a skewed distribution so that a few popular
+     * products are reviewed by many users, as on the real site.
+     *
+     * @param productCount Number of distinct products to review.
+     */
+    public static BenchmarkData generate(int userCount, int reviewsPerUser, int productCount, long seed) {
+        Random random = new Random(seed);
+        Category[] categories = Category.values();
+
+        List<Product> products = new ArrayList<>(productCount);
+        for (int p = 0; p < productCount; p++) {
+            Product product = new Product(categories[p % categories.length], "https://example.com/product/" + p);
+            product.setId((long) p + 1);
+            products.add(product);
+        }
+
+        List<User> users = new ArrayList<>(userCount);
+        for (int u = 0; u < userCount; u++) {
+            User user = new User("user-" + u);
+            user.setId((long) u + 1);
+            for (int r = 0; r < reviewsPerUser; r++) {
+                // squaring a uniform draw favours low product indexes
+                double skewed = random.nextDouble() * random.nextDouble();
+                Product product = products.get((int) (skewed * productCount));
+                user.addReview(new Review(user, random.nextInt(6), "review " + r, product));
+            }
+            user.setFollowerCount(random.nextInt(1_000));
+            users.add(user);
+        }
+        return new BenchmarkData(users, products);
+    }
+
+    /**
+     * Insert the generated users straight into the {@code app_user} table, with their
+     * product fingerprints but without the reviews and products behind them.
+     */
+    public void insertUsers(JdbcTemplate jdbc) {
+        LongArrayConverter converter = new LongArrayConverter();
+        List<Object[]> rows = new ArrayList<>(users.size());
+        for (User user : users) {
+            rows.add(new Object[]{user.getId(), user.getUsername(), user.getFollowerCount(), 0,
+                    converter.convertToDatabaseColumn(user.getReviewedProductIds()), 0L});
+        }
+        jdbc.batchUpdate("insert into app_user (id, username, follower_count, following_count, "
+                + "reviewed_product_ids, version) values (?, ?, ?, ?, ?, ?)", rows);
+    }
+}
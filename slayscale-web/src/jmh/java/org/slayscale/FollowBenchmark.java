@@ -0,0 +1,58 @@
+package org.slayscale;
+
+import org.openjdk.jmh.annotations.*;
+import org.slayscale.analytics.FollowGraph;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of following and unfollowing a user who already has a large number of
+ * followers, both on the entities and on the in-memory {@link FollowGraph}.
+ * Each invocation follows and then unfollows, so the state is the same afterwards.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FollowBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int followers;
+
+    private User celebrity;
+    private User fan;
+    private FollowGraph graph;
+
+    @Setup
+    public void setUp() {
+        celebrity = new User("celebrity");
+        celebrity.setId(0L);
+        long[] from = new long[followers];
+        long[] to = new long[followers];
+        for (int f = 0; f < followers; f++) {
+            User follower = new User("follower-" + f);
+            follower.setId((long) f + 1);
+            follower.follow(celebrity);
+            from[f] = follower.getId();
+            to[f] = celebrity.getId();
+        }
+        fan = new User("new-fan");
+        fan.setId((long) followers + 1);
+        graph = FollowGraph.fromEdges(from, to, followers);
+    }
+
+    @Benchmark
+    public int followUnfollowEntities() {
+        fan.follow(celebrity);
+        fan.unfollow(celebrity);
+        return celebrity.getFollowerCount();
+    }
+
+    @Benchmark
+    public boolean followUnfollowGraph() {
+        graph.follow(fan.getId(), celebrity.getId());
+        return graph.unfollow(fan.getId(), celebrity.getId());
+    }
+}
@@ -0,0 +1,51 @@
+package org.slayscale;
+
+import org.openjdk.jmh.annotations.*;
+import org.slayscale.analytics.InMemoryAnalyticsEngine;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single {@link User#getSimilarity(User)} call for users with
+ * different numbers of reviews, and of the analytics engine ranking all of them at once.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimilarityBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int reviewsPerUser;
+
+    private List<User> users;
+    private long[][] fingerprints;
+    private InMemoryAnalyticsEngine analytics;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        users = BenchmarkData.generate(1_024, reviewsPerUser, 10_000, 42L).users;
+        fingerprints = users.stream().map(User::getReviewedProductIds).toArray(long[][]::new);
+        analytics = new InMemoryAnalyticsEngine(32, 2, 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        analytics.close();
+    }
+
+    @Benchmark
+    public double getSimilarity() {
+        int i = next++ & 1023;
+        return users.get(i).getSimilarity(users.get((i * 31 + 7) & 1023));
+    }
+
+    @Benchmark
+    public int[] rankBySimilarity() {
+        return analytics.rankBySimilarity(fingerprints[next++ & 1023], fingerprints);
+    }
+}
@@ -0,0 +1,73 @@
+package org.slayscale;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of {@link UserController#getAllUsers} for each sort strategy, in the
+ * application context without a web server, against an in-memory H2 database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class UserSortBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int users;
+
+    @Param({"5", "50"})
+    public int reviewsPerUser;
+
+    private ConfigurableApplicationContext context;
+    private UserController controller;
+    private long baseUserId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SlayScaleApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark", "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        BenchmarkData data = BenchmarkData.generate(users, reviewsPerUser, Math.max(1_000, users / 2), 42L);
+        data.insertUsers(context.getBean(JdbcTemplate.class));
+        // The index was loaded from the empty database at startup.
+        context.getBean(SimilarityIndex.class).warm();
+        controller = context.getBean(UserController.class);
+        baseUserId = data.users.get(users / 2).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<List<User>> defaultOrder() {
+        return controller.getAllUsers(UserSortStrategy.DEFAULT, null, SimilarityMode.EXACT, null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<List<User>> mostFollowed() {
+        return controller.getAllUsers(UserSortStrategy.MOST_FOLLOWED, null, SimilarityMode.EXACT, null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<List<User>> similarityExact() {
+        return controller.getAllUsers(UserSortStrategy.SIMILARITY, baseUserId, SimilarityMode.EXACT, null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<List<User>> similarityApproximate() {
+        return controller.getAllUsers(UserSortStrategy.SIMILARITY, baseUserId, SimilarityMode.APPROXIMATE, 20, null);
+    }
+}
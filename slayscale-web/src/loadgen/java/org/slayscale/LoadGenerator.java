@@ -0,0 +1,383 @@
+package org.slayscale;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.slayscale.TrafficMix.Operation;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a mix of SlayScale traffic against a running app and reports latency
+ * percentiles per operation. Unless {@code loadgen.target} is set, the app is booted
+ * in the same JVM against a fresh H2 file database. Run with:
+ * <pre>mvn -Ploadgen verify -Dloadgen.rate=500 -Dloadgen.duration=120</pre>
+ *
+ * <p>Requests arrive as a Poisson process at a fixed mean rate whether or not earlier
+ * ones have completed (an open model), and latency is measured from the time each
+ * request was scheduled, so a stalled server shows up as latency rather than as
+ * fewer requests. The percentile distribution of every operation is also written to
+ * {@code <output>/<operation>.hgrm}, for comparing two runs with HdrHistogram's plotter.
+ */
+public final class LoadGenerator {
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SEED_CONCURRENCY = 32;
+    private static final int SEED_REVIEW_CHUNK = 5_000;
+
+    private final URI base;
+    private final HttpClient client;
+    private final Random random;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final IdPool users = new IdPool();
+    private final IdPool products = new IdPool();
+    private final AtomicLong names = new AtomicLong();
+
+    private LoadGenerator(URI base, HttpClient client, long seed) {
+        this.base = base;
+        this.client = client;
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        String target = System.getProperty("loadgen.target", "");
+        String dbUrl = System.getProperty("loadgen.db-url", "jdbc:h2:file:./target/loadgen/slayscale");
+        String appArgs = System.getProperty("loadgen.app-args", "");
+        double rate = Double.parseDouble(System.getProperty("loadgen.rate", "200"));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadgen.warmup", 10));
+        Duration duration = Duration.ofSeconds(Long.getLong("loadgen.duration", 60));
+        TrafficMix mix = TrafficMix.parse(System.getProperty("loadgen.mix", TrafficMix.DEFAULT));
+        int seedUsers = Integer.getInteger("loadgen.users", 1_000);
+        int seedProducts = Integer.getInteger("loadgen.products", 200);
+        int maxInFlight = Integer.getInteger("loadgen.max-in-flight", 5_000);
+        long seed = Long.getLong("loadgen.seed", 42);
+        Path output = Path.of(System.getProperty("loadgen.output", "target/loadgen"));
+        if (rate <= 0) throw new IllegalArgumentException("loadgen.rate must be positive.");
+        if (duration.toSeconds() <= 0) throw new IllegalArgumentException("loadgen.duration must be positive.");
+        if (seedUsers < 2 || seedProducts < 1) throw new IllegalArgumentException("Seed at least 2 users and 1 product.");
+
+        ConfigurableApplicationContext context = null;
+        if (target.isBlank()) {
+            List<String> arguments = new ArrayList<>(List.of("--server.port=0", "--spring.datasource.url=" + dbUrl,
+                    "--spring.jpa.hibernate.ddl-auto=create"));
+            if (!appArgs.isBlank()) arguments.addAll(List.of(appArgs.trim().split("\\s+")));
+            context = new SpringApplicationBuilder(SlayScaleApplication.class).run(arguments.toArray(String[]::new));
+            target = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+
+        try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+            LoadGenerator generator = new LoadGenerator(URI.create(target), client, seed);
+            generator.seed(seedUsers, seedProducts, 5, 5);
+            System.out.printf("Seeded %d users and %d products, sending %.0f req/s for %s after a %s warm-up%n",
+                    generator.users.size(), generator.products.size(), rate, duration, warmup);
+
+            Map<Operation, Stats> stats = generator.run(mix, rate, warmup, duration, maxInFlight);
+            report(stats, duration, System.out);
+            writeHistograms(stats, output);
+        } finally {
+            if (context != null) context.close();
+        }
+    }
+
+    // --- seeding ---------------------------------------------------------------------------------
+
+    /** Create users, products, reviews and follows through the API, so that the reads have something to read. */
+    private void seed(int userCount, int productCount, int reviewsPerUser, int followsPerUser) throws Exception {
+        Category[] categories = Category.values();
+        inParallel(productCount, i -> products.add(createProduct(categories[i % categories.length])));
+        inParallel(userCount, i -> users.add(signup()));
+
+        StringBuilder reviews = new StringBuilder();
+        int lines = 0;
+        for (int u = 0; u < users.size(); u++) {
+            for (int r = 0; r < reviewsPerUser; r++) {
+                reviews.append(String.format("{\"userId\": %d, \"productId\": %d, \"rating\": %d, \"text\": \"%s\"}%n",
+                        users.get(u), products.pick(random), random.nextInt(6), reviewText()));
+                if (++lines % SEED_REVIEW_CHUNK == 0) {
+                    postReviews(reviews.toString());
+                    reviews.setLength(0);
+                }
+            }
+        }
+        if (!reviews.isEmpty()) postReviews(reviews.toString());
+
+        long[][] follows = new long[users.size() * followsPerUser][];
+        for (int i = 0; i < follows.length; i++) {
+            long follower = users.get(i / followsPerUser);
+            follows[i] = new long[]{follower, followTarget(follower)};
+        }
+        inParallel(follows.length, i -> send(post("/api/users/" + follows[i][0] + "/follow/" + follows[i][1], "")));
+    }
+
+    @FunctionalInterface
+    private interface SeedTask {
+        void run(int i) throws Exception;
+    }
+
+    private static void inParallel(int count, SeedTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(SEED_CONCURRENCY);
+        try {
+            List<Future<?>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    task.run(index);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private long signup() throws IOException, InterruptedException {
+        return id(send(post("/api/users", "{\"username\": \"" + nextName("lg") + "\"}")));
+    }
+
+    private long createProduct(Category category) throws IOException, InterruptedException {
+        String url = "https://example.com/loadgen/" + nextName("p");
+        return id(send(post("/api/products", "{\"category\": \"" + category + "\", \"url\": \"" + url + "\"}")));
+    }
+
+    private void postReviews(String ndjson) throws IOException, InterruptedException {
+        send(HttpRequest.newBuilder(base.resolve("/api/reviews/bulk")).timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", ReviewController.NDJSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson)).build());
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " failed with "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private static long id(HttpResponse<String> response) throws IOException {
+        return JSON.readTree(response.body()).get("id").asLong();
+    }
+
+    // Unique across runs against the same database, and a valid username.
+    private String nextName(String prefix) {
+        return prefix + runId + "-" + names.incrementAndGet();
+    }
+
+    private String reviewText() {
+        String[] words = {"great", "battery", "quality", "value", "broke", "love", "size", "fast", "cheap", "gift"};
+        return words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+    }
+
+    // --- the run ---------------------------------------------------------------------------------
+
+    /**
+     * Per operation latencies of the requests scheduled after the warm-up, in microseconds,
+     * and the requests that failed or were never sent.
+     */
+    record Stats(Histogram latency, LongAdder clientErrors, LongAdder serverErrors, LongAdder dropped) {
+        Stats() {
+            this(new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, 3), new LongAdder(), new LongAdder(), new LongAdder());
+        }
+    }
+
+    private Map<Operation, Stats> run(TrafficMix mix, double rate, Duration warmup, Duration duration, int maxInFlight) {
+        Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+        mix.operations().forEach(operation -> stats.put(operation, new Stats()));
+        AtomicInteger inFlight = new AtomicInteger();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long scheduled = start; scheduled < end; scheduled += nextArrival(rate)) {
+                long delay = scheduled - System.nanoTime();
+                if (delay > 0) LockSupport.parkNanos(delay);
+
+                Operation operation = mix.next(random);
+                Stats operationStats = stats.get(operation);
+                boolean measured = scheduled >= measureFrom;
+                if (inFlight.get() >= maxInFlight) {
+                    // The server is too far behind, count the request instead of queueing it without bound.
+                    if (measured) operationStats.dropped().increment();
+                    continue;
+                }
+                HttpRequest request = request(operation);
+                long intended = scheduled;
+                inFlight.incrementAndGet();
+                senders.execute(() -> {
+                    try {
+                        call(operation, request, intended, measured ? operationStats : null);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+        return stats;
+    }
+
+    // Exponentially distributed gaps make Poisson arrivals at the given mean rate.
+    private long nextArrival(double rate) {
+        return (long) (-Math.log(1 - random.nextDouble()) / rate * 1e9);
+    }
+
+    private HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case SIGNUP -> post("/api/users", "{\"username\": \"" + nextName("lg") + "\"}");
+            case CREATE_PRODUCT -> {
+                Category category = Category.values()[random.nextInt(Category.values().length)];
+                String url = "https://example.com/loadgen/" + nextName("p");
+                yield post("/api/products", "{\"category\": \"" + category + "\", \"url\": \"" + url + "\"}");
+            }
+            case POST_REVIEW -> post("/api/users/" + users.pick(random) + "/review",
+                    String.format("{\"productId\": %d, \"rating\": %d, \"text\": \"%s\"}",
+                            products.pick(random), random.nextInt(6), reviewText()));
+            case FOLLOW -> {
+                long follower = users.pick(random);
+                yield post("/api/users/" + follower + "/follow/" + followTarget(follower), "");
+            }
+            case SIMILAR_USERS -> get("/api/users?sortStrategy=SIMILARITY&baseUserId=" + users.pick(random));
+            case MOST_FOLLOWED_USERS -> get("/api/users?sortStrategy=MOST_FOLLOWED&limit=20");
+            case PRODUCT_DETAIL -> get("/SlayScale/products/" + products.pick(random));
+        };
+    }
+
+    // Any user but the follower.
+    private long followTarget(long follower) {
+        long target = users.pick(random);
+        if (target != follower) return target;
+        return users.get(0) != follower ? users.get(0) : users.get(1);
+    }
+
+        private void call(Operation operation, HttpRequest request, long intended, Stats stats) {
+        int status;
+        String body = null;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            body = response.body();
+        } catch (IOException e) {
+            status = 599; // no response, counted as a server error
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+
+        // New users and products join the pools, so that later requests spread over them.
+        if (status == 201) {
+            try {
+                if (operation == Operation.SIGNUP) users.add(JSON.readTree(body).get("id").asLong());
+                if (operation == Operation.CREATE_PRODUCT) products.add(JSON.readTree(body).get("id").asLong());
+            } catch (IOException e) {
+                // not worth failing the run over
+            }
+        }
+
+        if (stats == null) return; // warm-up
+        stats.latency().recordValue(Math.min(micros, HIGHEST_LATENCY_MICROS));
+        if (status >= 500) stats.serverErrors().increment();
+        else if (status >= 400) stats.clientErrors().increment();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+
+    // --- reporting -------------------------------------------------------------------------------
+
+    static void report(Map<Operation, Stats> stats, Duration duration, PrintStream out) {
+        out.printf("%-15s %8s %8s %6s %6s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "4xx", "5xx", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram total = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+        long clientErrors = 0, serverErrors = 0, dropped = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            total.add(s.latency());
+            clientErrors += s.clientErrors().sum();
+            serverErrors += s.serverErrors().sum();
+            dropped += s.dropped().sum();
+            printRow(out, entry.getKey().key(), s.latency(), s.clientErrors().sum(), s.serverErrors().sum(),
+                    s.dropped().sum(), duration);
+        }
+        printRow(out, "total", total, clientErrors, serverErrors, dropped, duration);
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram latency, long clientErrors, long serverErrors,
+                                 long dropped, Duration duration) {
+        out.printf("%-15s %8d %8.1f %6d %6d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, latency.getTotalCount(), latency.getTotalCount() / (double) duration.toSeconds(),
+                clientErrors, serverErrors, dropped,
+                millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                latency.getMaxValue() / 1000.0);
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static void writeHistograms(Map<Operation, Stats> stats, Path output) throws IOException {
+        Files.createDirectories(output);
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(output.resolve(entry.getKey().key() + ".hgrm")))) {
+                entry.getValue().latency().outputPercentileDistribution(out, 1000.0); // in milliseconds
+            }
+        }
+        System.out.println("Percentile distributions written to " + output.toAbsolutePath());
+    }
+
+    /**
+     * The IDs of the users or products created so far. Picks favour the oldest IDs,
+     * so that a few users and products are much more popular than the rest, as on the real site.
+     */
+    private static final class IdPool {
+        private long[] ids = new long[1024];
+        private int size;
+
+        synchronized void add(long id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        synchronized long get(int i) {
+            return ids[i];
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long pick(Random random) {
+            // squaring a uniform draw favours low indexes
+            double skewed = random.nextDouble() * random.nextDouble();
+            return ids[(int) (skewed * size)];
+        }
+    }
+}
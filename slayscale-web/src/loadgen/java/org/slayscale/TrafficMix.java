@@ -0,0 +1,83 @@
+package org.slayscale;
+
+import java.util.*;
+
+/**
+ * The weighted mix of operations a load generator run replays, parsed from e.g.
+ * {@code "signup=2,review=10,product-detail=50"}. Operations left out are not sent.
+ */
+public final class TrafficMix {
+
+    public enum Operation {
+        SIGNUP("signup"),
+        CREATE_PRODUCT("product"),
+        POST_REVIEW("review"),
+        FOLLOW("follow"),
+        SIMILAR_USERS("similarity"),
+        MOST_FOLLOWED_USERS("most-followed"),
+        PRODUCT_DETAIL("product-detail");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        static Operation fromKey(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equals(key)) return operation;
+            }
+            throw new IllegalArgumentException("Unknown operation '" + key + "', expected one of "
+                    + Arrays.stream(values()).map(Operation::key).toList() + ".");
+        }
+    }
+
+    public static final String DEFAULT =
+            "signup=2,product=1,review=10,follow=7,similarity=10,most-followed=20,product-detail=50";
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private TrafficMix(Operation[] operations, int[] cumulativeWeights) {
+        this.operations = operations;
+        this.cumulativeWeights = cumulativeWeights;
+    }
+
+    public static TrafficMix parse(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            if (entry.isBlank()) continue;
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) throw new IllegalArgumentException("Expected operation=weight, got '" + entry + "'.");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) throw new IllegalArgumentException("Weight of " + parts[0].trim() + " cannot be negative.");
+            weights.merge(Operation.fromKey(parts[0].trim()), weight, Integer::sum);
+        }
+        weights.values().removeIf(weight -> weight == 0);
+        if (weights.isEmpty()) throw new IllegalArgumentException("The traffic mix is empty.");
+
+        Operation[] operations = weights.keySet().toArray(Operation[]::new);
+        int[] cumulative = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulative[i] = total;
+        }
+        return new TrafficMix(operations, cumulative);
+    }
+
+    /** Draw an operation in proportion to its weight. */
+    public Operation next(Random random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int i = Arrays.binarySearch(cumulativeWeights, draw + 1);
+        return operations[i >= 0 ? i : -i - 1];
+    }
+
+    public Set<Operation> operations() {
+        return EnumSet.copyOf(Arrays.asList(operations));
+    }
+}
@@ -0,0 +1,9 @@
+package org.slayscale;
+
+/**
+ * A cheap version of a collection of entities. Versions only grow and IDs are never
+ * reused, so any insert, update or delete in the collection changes at least one of
+ * the count, the sum of the versions and the highest ID.
+ */
+public record AggregateVersion(long count, long versionSum, long maxId) {
+}
@@ -0,0 +1,57 @@
+package org.slayscale;
+
+import jakarta.persistence.*;
+
+/**
+ * One change to the data behind the analytics engine, in the order the changes were made.
+ * On startup the changes after the snapshot's high-water mark are replayed on top of it.
+ */
+@Entity
+public class AnalyticsChange {
+
+    public enum Type {
+        FOLLOW,
+        UNFOLLOW,
+        /** The user's reviewed products changed. */
+        REVIEW
+    }
+
+    // Pooled like review IDs, so bulk review ingestion can still batch its inserts.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "analytics_change_seq")
+    @SequenceGenerator(name = "analytics_change_seq", sequenceName = "analytics_change_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    private long userId;
+
+    /** The followed or unfollowed user, 0 for reviews. */
+    private long otherUserId;
+
+    protected AnalyticsChange() {}
+
+    public AnalyticsChange(Type type, long userId, long otherUserId) {
+        this.type = type;
+        this.userId = userId;
+        this.otherUserId = otherUserId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public long getOtherUserId() {
+        return otherUserId;
+    }
+}
@@ -0,0 +1,22 @@
+package org.slayscale;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface AnalyticsChangeRepository extends JpaRepository<AnalyticsChange, Long> {
+
+    @Query("select coalesce(max(c.id), 0) from AnalyticsChange c")
+    long findHighWaterMark();
+
+    List<AnalyticsChange> findByIdGreaterThanOrderByIdAsc(long id);
+
+    @Modifying
+    @Transactional
+    @Query("delete from AnalyticsChange c where c.id <= :id")
+    int deleteUpTo(@Param("id") long id);
+}
@@ -0,0 +1,23 @@
+package org.slayscale;
+
+import org.slayscale.analytics.AnalyticsEngine;
+import org.slayscale.analytics.InMemoryAnalyticsEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The {@link AnalyticsEngine} behind similarity sorting, the follow graph and trust ranking.
+ * {@link SimilarityIndex}, {@link FollowGraphService} and {@link TrustRankService} load it
+ * from the database and keep it up to date.
+ */
+@Configuration
+public class AnalyticsConfig {
+
+    @Bean(destroyMethod = "close")
+    public InMemoryAnalyticsEngine analyticsEngine(@Value("${slayscale.similarity.lsh.bands:32}") int bands,
+                                                   @Value("${slayscale.similarity.lsh.rows:2}") int rows,
+                                                   @Value("${slayscale.trust.parallelism:0}") int parallelism) {
+        return new InMemoryAnalyticsEngine(bands, rows, parallelism);
+    }
+}
@@ -0,0 +1,205 @@
+package org.slayscale;
+
+import io.micrometer.core.instrument.Metrics;
+import org.slayscale.analytics.AnalyticsEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the {@link AnalyticsEngine} at startup, from a snapshot file if there is one.
+ * With {@code slayscale.snapshot.path} set, the follow graph and the product fingerprints
+ * are written to that file periodically and on shutdown, and every follow, unfollow and
+ * review is recorded as an {@link AnalyticsChange} in the same transaction. A restart then
+ * reads the snapshot and replays only the changes after its high-water mark, instead of
+ * reading the whole {@code user_following} table and every user's fingerprint.
+ *
+ * <p>Change IDs don't commit in order, so a snapshot's high-water mark is not simply the
+ * highest change ID: it stops below the oldest change whose transaction hasn't finished
+ * applying it to the engine, see {@link #write()}. The engine only sees the
+ * events of its own instance, so this, like the engine itself, assumes a single instance.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE) // before the loaders that read the follow graph
+public class AnalyticsSnapshotService implements StartupLoader {
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsSnapshotService.class);
+
+    private static final int FINGERPRINT_BATCH_SIZE = 1_000;
+
+    private final AnalyticsEngine analytics;
+    private final FollowGraphService followGraphService;
+    private final SimilarityIndex similarityIndex;
+    private final UserRepository userRepository;
+    private final AnalyticsChangeRepository changeRepository;
+    private final Path snapshotPath;
+    // IDs of the recorded changes whose transactions haven't completed yet.
+    private final NavigableSet<Long> unapplied = new TreeSet<>();
+
+    public AnalyticsSnapshotService(AnalyticsEngine analytics, FollowGraphService followGraphService,
+                                    SimilarityIndex similarityIndex, UserRepository userRepository,
+                                    AnalyticsChangeRepository changeRepository,
+                                    @Value("${slayscale.snapshot.path:}") String snapshotPath) {
+        this.analytics = analytics;
+        this.followGraphService = followGraphService;
+        this.similarityIndex = similarityIndex;
+        this.userRepository = userRepository;
+        this.changeRepository = changeRepository;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    @Override
+    public void load() {
+        if (snapshotPath != null && Files.exists(snapshotPath) && restore()) return;
+        followGraphService.load();
+        similarityIndex.warm();
+    }
+
+    private boolean restore() {
+        long start = System.nanoTime();
+        long highWaterMark;
+        try {
+            highWaterMark = analytics.loadSnapshot(snapshotPath);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable analytics snapshot {}", snapshotPath, e);
+            return false;
+        }
+        if (highWaterMark > changeRepository.findHighWaterMark()) {
+            // Written against another database, e.g. one that has since been recreated.
+            log.warn("Ignoring analytics snapshot {}, it is ahead of the database", snapshotPath);
+            return false;
+        }
+        int replayed = replay(highWaterMark);
+        long duration = System.nanoTime() - start;
+        Metrics.timer("slayscale.snapshot.restore").record(duration, TimeUnit.NANOSECONDS);
+        log.info("Analytics restored from {} in {} ms, {} changes replayed",
+                snapshotPath, TimeUnit.NANOSECONDS.toMillis(duration), replayed);
+        return true;
+    }
+
+    private int replay(long highWaterMark) {
+        List<AnalyticsChange> changes = changeRepository.findByIdGreaterThanOrderByIdAsc(highWaterMark);
+        Set<Long> reviewers = new HashSet<>();
+        for (AnalyticsChange change : changes) {
+            switch (change.getType()) {
+                case FOLLOW -> analytics.follow(change.getUserId(), change.getOtherUserId());
+                case UNFOLLOW -> analytics.unfollow(change.getUserId(), change.getOtherUserId());
+                case REVIEW -> reviewers.add(change.getUserId());
+            }
+        }
+        // The user row holds the current fingerprint, so read it rather than replaying each review.
+        List<Long> ids = new ArrayList<>(reviewers);
+        for (int i = 0; i < ids.size(); i += FINGERPRINT_BATCH_SIZE) {
+            List<Long> batch = ids.subList(i, Math.min(i + FINGERPRINT_BATCH_SIZE, ids.size()));
+            for (Object[] row : userRepository.findFingerprintsByIdIn(batch)) {
+                analytics.putFingerprint(((Number) row[0]).longValue(), (long[]) row[1]);
+            }
+        }
+        return changes.size();
+    }
+
+    /**
+     * Write a snapshot, then drop the recorded changes it no longer needs.
+     */
+    @Scheduled(fixedDelayString = "${slayscale.snapshot.interval:PT10M}",
+            initialDelayString = "${slayscale.snapshot.interval:PT10M}")
+    public synchronized void write() {
+        if (snapshotPath == null) return;
+        long start = System.nanoTime();
+        // Read before the engine is copied, so the snapshot holds at least every change up to the
+        // high-water mark: the highest committed ID, but below any change whose transaction is
+        // still open or still running its after-commit listeners. Changes get their IDs under
+        // the same lock, so none can be committed above the mark without being in unapplied.
+        long committed;
+        long highWaterMark;
+        synchronized (unapplied) {
+            committed = changeRepository.findHighWaterMark();
+            highWaterMark = unapplied.isEmpty() ? committed : Math.min(committed, unapplied.first() - 1);
+        }
+        try {
+            analytics.writeSnapshot(snapshotPath, highWaterMark);
+        } catch (IOException e) {
+            log.warn("Could not write the analytics snapshot to {}", snapshotPath, e);
+            return;
+        }
+        // Keep the newest change, so a restart can still tell the snapshot isn't ahead of the database.
+        int pruned = changeRepository.deleteUpTo(Math.min(highWaterMark, committed - 1));
+        long duration = System.nanoTime() - start;
+        Metrics.timer("slayscale.snapshot.write").record(duration, TimeUnit.NANOSECONDS);
+        log.info("Analytics snapshot written to {} in {} ms, {} old changes pruned",
+                snapshotPath, TimeUnit.NANOSECONDS.toMillis(duration), pruned);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void writeOnShutdown() {
+        write();
+    }
+
+    // Synchronous listeners, so each change commits or rolls back with the change itself.
+
+    @EventListener
+    public void onFollowed(UserFollowedEvent event) {
+        record(new AnalyticsChange(AnalyticsChange.Type.FOLLOW, event.followerId(), event.followingId()));
+    }
+
+    @EventListener
+    public void onUnfollowed(UserUnfollowedEvent event) {
+        record(new AnalyticsChange(AnalyticsChange.Type.UNFOLLOW, event.followerId(), event.followingId()));
+    }
+
+    @EventListener
+    public void onReviewCreated(ReviewCreatedEvent event) {
+        record(new AnalyticsChange(AnalyticsChange.Type.REVIEW, event.authorId(), 0));
+    }
+
+    @EventListener
+    public void onReviewDeleted(ReviewDeletedEvent event) {
+        record(new AnalyticsChange(AnalyticsChange.Type.REVIEW, event.authorId(), 0));
+    }
+
+    private void record(AnalyticsChange change) {
+        if (snapshotPath == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changeRepository.save(change); // commits on its own
+            return;
+        }
+        // Handed out and registered under the lock write() reads the high-water mark with.
+        long id;
+        synchronized (unapplied) {
+            id = changeRepository.save(change).getId();
+            unapplied.add(id);
+        }
+        // Last among the after-completion work, after the engine's listeners have applied the change.
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (unapplied) {
+                    unapplied.remove(id);
+                }
+            }
+        });
+    }
+}
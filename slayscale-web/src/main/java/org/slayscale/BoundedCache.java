@@ -0,0 +1,101 @@
+package org.slayscale;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A small least-recently-used cache with a size bound and a time-to-live per entry.
+ * Null values are never cached.
+ */
+public class BoundedCache<K, V> {
+    private record CacheEntry<V>(V value, long expiresAt) {}
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int maxSize, long ttlNanos) {
+        this(maxSize, ttlNanos, System::nanoTime);
+    }
+
+    BoundedCache(int maxSize, long ttlNanos, LongSupplier nanoClock) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive.");
+        if (ttlNanos <= 0) throw new IllegalArgumentException("ttl must be positive.");
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlNanos;
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() <= BoundedCache.this.maxSize) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get the cached value, or load and cache it on a miss. The loader runs
+     * outside the lock, so two threads missing at once may both load.
+     */
+    public V get(K key, Function<K, V> loader) {
+        synchronized (this) {
+            CacheEntry<V> entry = entries.get(key);
+            if (entry != null && nanoClock.getAsLong() - entry.expiresAt() < 0) {
+                hits.increment();
+                return entry.value();
+            }
+            if (entry != null) entries.remove(key);
+        }
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null) put(key, value);
+        return value;
+    }
+
+    public synchronized V peek(K key) {
+        CacheEntry<V> entry = entries.get(key);
+        return entry != null && nanoClock.getAsLong() - entry.expiresAt() < 0 ? entry.value() : null;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new CacheEntry<>(value, nanoClock.getAsLong() + ttlNanos));
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<K> predicate) {
+        entries.keySet().removeIf(predicate);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,7 @@
+package org.slayscale;
+
+/**
+ * One review in a bulk ingestion request.
+ */
+public record BulkReview(Long userId, Long productId, Integer rating, String text) {
+}
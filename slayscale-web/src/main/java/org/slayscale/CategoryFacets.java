@@ -0,0 +1,77 @@
+package org.slayscale;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the products and reviews in each category. The counts are read from the product
+ * aggregates once at startup and then kept up to date: {@link ProductController} reports
+ * created products, and deleted products and reviews are counted from their events.
+ */
+@Component
+public class CategoryFacets implements StartupLoader {
+
+    public record Counts(long products, long reviews) {
+    }
+
+    private final ProductRepository productRepository;
+    // Filled with every category up front, so the maps are never modified after construction.
+    private final EnumMap<Category, AtomicLong> products = new EnumMap<>(Category.class);
+    private final EnumMap<Category, AtomicLong> reviews = new EnumMap<>(Category.class);
+
+    public CategoryFacets(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+        for (Category category : Category.values()) {
+            products.put(category, new AtomicLong());
+            reviews.put(category, new AtomicLong());
+        }
+    }
+
+    @Override
+    public void load() {
+        Map<Category, Counts> counts = new EnumMap<>(Category.class);
+        for (Object[] row : productRepository.countByCategory()) {
+            counts.put((Category) row[0], new Counts(((Number) row[1]).longValue(), ((Number) row[2]).longValue()));
+        }
+        for (Category category : Category.values()) {
+            Counts count = counts.getOrDefault(category, new Counts(0, 0));
+            products.get(category).set(count.products());
+            reviews.get(category).set(count.reviews());
+        }
+    }
+
+    public void onProductCreated(Product product) {
+        products.get(product.getCategory()).incrementAndGet();
+    }
+
+    // The product's reviews are counted off from their own events.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        products.get(event.category()).decrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewCreated(ReviewCreatedEvent event) {
+        if (event.category() != null) reviews.get(event.category()).incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewDeleted(ReviewDeletedEvent event) {
+        if (event.category() != null) reviews.get(event.category()).decrementAndGet();
+    }
+
+    /**
+     * Get the counts of every category, in declaration order.
+     */
+    public Map<Category, Counts> counts() {
+        Map<Category, Counts> counts = new EnumMap<>(Category.class);
+        for (Category category : Category.values()) {
+            counts.put(category, new Counts(products.get(category).get(), reviews.get(category).get()));
+        }
+        return counts;
+    }
+}
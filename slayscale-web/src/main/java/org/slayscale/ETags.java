@@ -0,0 +1,21 @@
+package org.slayscale;
+
+/**
+ * Strong ETags derived from version counters rather than from response bodies, so
+ * that a conditional GET can be answered without loading or serializing anything.
+ */
+public final class ETags {
+
+    private ETags() {}
+
+    /**
+     * @param type Distinguishes the representations of the same ID, e.g. a product and its reviews.
+     */
+    public static String of(String type, Object id, long version) {
+        return "\"" + type + "-" + id + "-" + version + "\"";
+    }
+
+    public static String of(String type, Object key, AggregateVersion version) {
+        return "\"" + type + "-" + key + "-" + version.count() + "-" + version.versionSum() + "-" + version.maxId() + "\"";
+    }
+}
@@ -0,0 +1,92 @@
+package org.slayscale;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Whole-table exports as NDJSON, one row per line. Rows are streamed from the
+ * database and written as they are read, so memory use doesn't depend on the
+ * size of the table.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+    static final int FETCH_SIZE = 500;
+
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public ExportController(UserRepository userRepository, ProductRepository productRepository,
+                            ReviewRepository reviewRepository, TransactionTemplate transactionTemplate,
+                            EntityManager entityManager, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.reviewRepository = reviewRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping(value = "/users", produces = ReviewController.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ndjson(userRepository::streamAllForExport);
+    }
+
+    @GetMapping(value = "/products", produces = ReviewController.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        return ndjson(productRepository::streamAllForExport);
+    }
+
+    @GetMapping(value = "/reviews", produces = ReviewController.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportReviews() {
+        return ndjson(reviewRepository::streamAllForExport);
+    }
+
+    /**
+     * Write every row of the query as a line of JSON. The query runs in its own read-only
+     * transaction on the thread writing the response, and the persistence context is
+     * cleared every {@value #FETCH_SIZE} rows so loaded entities can be collected.
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(Supplier<Stream<?>> query) {
+        StreamingResponseBody body = out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<?> rows = query.get();
+                 SequenceWriter writer = objectMapper.writer()
+                         .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                         .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                         .withRootValueSeparator("\n")
+                         .writeValues(out)) {
+                int written = 0;
+                for (var iterator = rows.iterator(); iterator.hasNext(); ) {
+                    writer.write(iterator.next());
+                    if (++written % FETCH_SIZE == 0) {
+                        entityManager.clear();
+                        writer.flush();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(ReviewController.NDJSON_VALUE)).body(body);
+    }
+}
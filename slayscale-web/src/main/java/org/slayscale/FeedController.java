@@ -0,0 +1,63 @@
+package org.slayscale;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+@RestController
+@RequestMapping("/api/users")
+public class FeedController {
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final UserRepository userRepository;
+    private final ReviewRepository reviewRepository;
+    private final FeedService feedService;
+
+    public FeedController(UserRepository userRepository, ReviewRepository reviewRepository, FeedService feedService) {
+        this.userRepository = userRepository;
+        this.reviewRepository = reviewRepository;
+        this.feedService = feedService;
+    }
+
+    /**
+     * Get one page of the latest reviews by the people this user follows, newest first.
+     * The {@code before} value for the following page is returned in the
+     * {@value UserController#NEXT_CURSOR_HEADER} header and is absent on the last page.
+     */
+    @GetMapping("/{id}/feed")
+    public ResponseEntity<List<ReviewSummary>> getFeed(@PathVariable Long id,
+                                                  @RequestParam(required = false, defaultValue = "" + Long.MAX_VALUE) long before,
+                                                  @RequestParam(required = false, defaultValue = "20") int limit) {
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!userRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        int size = Math.min(limit, MAX_PAGE_SIZE);
+        long[] reviewIds = feedService.page(id, before, size);
+        if (reviewIds.length == 0) {
+            return ResponseEntity.ok(List.of());
+        }
+
+        // One query for the whole page, put back in feed order. A review deleted since it
+        // was fanned out is simply not found.
+        Map<Long, ReviewSummary> items = new HashMap<>();
+        for (ReviewSummary item : reviewRepository.findSummariesByIdIn(Arrays.stream(reviewIds).boxed().toList())) {
+            items.put(item.reviewId(), item);
+        }
+        List<ReviewSummary> feed = new ArrayList<>(reviewIds.length);
+        for (long reviewId : reviewIds) {
+            ReviewSummary item = items.get(reviewId);
+            if (item != null) feed.add(item);
+        }
+
+        if (reviewIds.length < size) {
+            return ResponseEntity.ok(feed);
+        }
+        return ResponseEntity.ok()
+                .header(UserController.NEXT_CURSOR_HEADER, Long.toString(reviewIds[reviewIds.length - 1]))
+                .body(feed);
+    }
+}
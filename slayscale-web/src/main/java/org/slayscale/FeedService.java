@@ -0,0 +1,85 @@
+package org.slayscale;
+
+import org.slayscale.analytics.AnalyticsEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Keeps a {@link FeedStore} of review feeds up to date from review events, using
+ * the {@link AnalyticsEngine}'s follow graph to find each author's followers.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE) // after AnalyticsSnapshotService has loaded the follow graph
+public class FeedService implements StartupLoader {
+    private static final Logger log = LoggerFactory.getLogger(FeedService.class);
+    private static final long[] NO_FOLLOWERS = new long[0];
+
+    private final ReviewRepository reviewRepository;
+    private final AnalyticsEngine analytics;
+    private final FeedStore store;
+    private final int warmReviews;
+
+    public FeedService(ReviewRepository reviewRepository, AnalyticsEngine analytics,
+                       @Value("${slayscale.feed.capacity:200}") int capacity,
+                       @Value("${slayscale.feed.celebrity-threshold:1000}") int celebrityThreshold,
+                       @Value("${slayscale.feed.warm-reviews:10000}") int warmReviews) {
+        this.reviewRepository = reviewRepository;
+        this.analytics = analytics;
+        this.store = new FeedStore(capacity, celebrityThreshold);
+        this.warmReviews = warmReviews;
+    }
+
+    // Replay the latest reviews, oldest first.
+    @Override
+    public void load() {
+        List<Object[]> reviews = reviewRepository.findLatestReviewAuthors(PageRequest.of(0, warmReviews));
+        for (int i = reviews.size() - 1; i >= 0; i--) {
+            long reviewId = ((Number) reviews.get(i)[0]).longValue();
+            long authorId = ((Number) reviews.get(i)[1]).longValue();
+            store.publish(authorId, reviewId, followersToPush(authorId));
+        }
+        log.info("Feeds warmed with {} reviews", reviews.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewCreated(ReviewCreatedEvent event) {
+        store.publish(event.authorId(), event.reviewId(), followersToPush(event.authorId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewDeleted(ReviewDeletedEvent event) {
+        store.retract(event.authorId(), event.reviewId(), followersToPush(event.authorId()));
+    }
+
+    // A pull-mode author's reviews only go to their outbox, and they never switch back,
+    // so their followers aren't looked up.
+    private long[] followersToPush(long authorId) {
+        return store.isCelebrity(authorId) ? NO_FOLLOWERS : analytics.followersOf(authorId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFollowed(UserFollowedEvent event) {
+        store.follow(event.followerId(), event.followingId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUnfollowed(UserUnfollowedEvent event) {
+        store.unfollow(event.followerId(), event.followingId());
+    }
+
+    /**
+     * Get up to {@code limit} review IDs from the user's feed, newest first,
+     * lower than {@code before}.
+     */
+    public long[] page(long userId, long before, int limit) {
+        return store.page(userId, before, limit, authorId -> analytics.isFollowing(userId, authorId));
+    }
+}
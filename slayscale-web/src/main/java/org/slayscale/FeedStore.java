@@ -0,0 +1,207 @@
+package org.slayscale;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Review feeds built on write. Every user has a bounded inbox of the latest review IDs
+ * from the people they follow, and every author an outbox of their own latest reviews.
+ * A new review is pushed into the inbox of each follower, unless the author has at
+ * least {@code celebrityThreshold} followers: their reviews are only kept in their
+ * outbox and pulled into their followers' feeds when read. An author stays in pull
+ * mode once switched, so none of their reviews fall between the two. Each user's followed
+ * pull-mode authors are tracked too, so a read only merges the outboxes it needs.
+ */
+public class FeedStore {
+    private final int capacity;
+    private final int celebrityThreshold;
+
+    private final Map<Long, Ring> inboxes = new HashMap<>();
+    private final Map<Long, Ring> outboxes = new HashMap<>();
+    private final Set<Long> celebrities = new HashSet<>();
+    private final Map<Long, Set<Long>> followedCelebrities = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public FeedStore(int capacity, int celebrityThreshold) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive.");
+        if (celebrityThreshold <= 0) throw new IllegalArgumentException("celebrityThreshold must be positive.");
+        this.capacity = capacity;
+        this.celebrityThreshold = celebrityThreshold;
+    }
+
+    /**
+     * Add a new review to the author's outbox and, for authors in push mode,
+     * to the inbox of each of their followers.
+     */
+    public void publish(long authorId, long reviewId, long[] followerIds) {
+        lock.writeLock().lock();
+        try {
+            outboxes.computeIfAbsent(authorId, id -> new Ring(capacity)).add(reviewId);
+            if (followerIds.length >= celebrityThreshold && celebrities.add(authorId)) {
+                for (long followerId : followerIds) {
+                    followedCelebrities.computeIfAbsent(followerId, id -> new HashSet<>()).add(authorId);
+                }
+            }
+            if (celebrities.contains(authorId)) return;
+            for (long followerId : followerIds) {
+                inboxes.computeIfAbsent(followerId, id -> new Ring(capacity)).add(reviewId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a deleted review from the author's outbox and from the inboxes of their
+     * current followers.
+     */
+    public void retract(long authorId, long reviewId, long[] followerIds) {
+        lock.writeLock().lock();
+        try {
+            Ring outbox = outboxes.get(authorId);
+            if (outbox != null) outbox.remove(reviewId);
+            if (celebrities.contains(authorId)) return;
+            for (long followerId : followerIds) {
+                Ring inbox = inboxes.get(followerId);
+                if (inbox != null) inbox.remove(reviewId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void follow(long followerId, long followingId) {
+        lock.writeLock().lock();
+        try {
+            if (celebrities.contains(followingId)) {
+                followedCelebrities.computeIfAbsent(followerId, id -> new HashSet<>()).add(followingId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void unfollow(long followerId, long followingId) {
+        lock.writeLock().lock();
+        try {
+            Set<Long> followed = followedCelebrities.get(followerId);
+            if (followed != null && followed.remove(followingId) && followed.isEmpty()) {
+                followedCelebrities.remove(followerId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isCelebrity(long authorId) {
+        lock.readLock().lock();
+        try {
+            return celebrities.contains(authorId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get up to {@code limit} review IDs from a user's feed, newest first, merging their
+     * inbox with the outboxes of the pull-mode authors they follow.
+     *
+     * @param before  Only return review IDs lower than this, e.g. the last ID of the previous page.
+     * @param follows Whether the user follows the given author, checked for each followed
+     *                pull-mode author in case a follow or unfollow hasn't reached the store yet.
+     */
+    public long[] page(long userId, long before, int limit, LongPredicate follows) {
+        lock.readLock().lock();
+        try {
+            List<Ring> sources = new ArrayList<>();
+            Ring inbox = inboxes.get(userId);
+            if (inbox != null) sources.add(inbox);
+            for (Long celebrity : followedCelebrities.getOrDefault(userId, Set.of())) {
+                Ring outbox = outboxes.get(celebrity);
+                if (outbox != null && follows.test(celebrity)) sources.add(outbox);
+            }
+
+            // k-way merge of the sources, each read newest first from just below `before`.
+            int[] positions = new int[sources.size()];
+            for (int s = 0; s < sources.size(); s++) {
+                positions[s] = sources.get(s).countBelow(before) - 1;
+            }
+            long[] page = new long[limit];
+            int size = 0;
+            while (size < limit) {
+                int newest = -1;
+                for (int s = 0; s < sources.size(); s++) {
+                    if (positions[s] >= 0 && (newest < 0
+                            || sources.get(s).get(positions[s]) > sources.get(newest).get(positions[newest]))) {
+                        newest = s;
+                    }
+                }
+                if (newest < 0) break;
+                long reviewId = sources.get(newest).get(positions[newest]--);
+                // A review pushed before its author switched to pull mode is in both boxes.
+                if (size == 0 || page[size - 1] != reviewId) page[size++] = reviewId;
+            }
+            return Arrays.copyOf(page, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A fixed-capacity buffer of review IDs in ascending order that drops the
+     * lowest ID when full. IDs come from a pooled sequence and reviews are
+     * added after they commit, so they arrive nearly, but not exactly, in order:
+     * an ID is inserted in place, shifting the few higher IDs up by one.
+     */
+    private static final class Ring {
+        private final long[] items;
+        private int start;
+        private int size;
+
+        Ring(int capacity) {
+            items = new long[capacity];
+        }
+
+        long get(int i) {
+            return items[(start + i) % items.length];
+        }
+
+        void add(long id) {
+            int at = countBelow(id);
+            if (at < size && get(at) == id) return;
+            if (size == items.length) {
+                if (at == 0) return; // lower than everything kept
+                start = (start + 1) % items.length;
+                size--;
+                at--;
+            }
+            for (int i = size; i > at; i--) {
+                items[(start + i) % items.length] = get(i - 1);
+            }
+            items[(start + at) % items.length] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int i = countBelow(id);
+            if (i == size || get(i) != id) return;
+            for (; i < size - 1; i++) {
+                items[(start + i) % items.length] = get(i + 1);
+            }
+            size--;
+        }
+
+        // The number of IDs lower than the given one, by binary search.
+        int countBelow(long id) {
+            int low = 0, high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (get(middle) < id) low = middle + 1;
+                else high = middle;
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.slayscale;
+
+import org.slayscale.analytics.AnalyticsEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Loads the follow graph of the whole user base into the {@link AnalyticsEngine}
+ * from the {@code user_following} join table and then keeps it up to date from
+ * follow and unfollow events.
+ */
+@Component
+public class FollowGraphService {
+    private static final Logger log = LoggerFactory.getLogger(FollowGraphService.class);
+
+    private final UserRepository userRepository;
+    private final AnalyticsEngine analytics;
+
+    public FollowGraphService(UserRepository userRepository, AnalyticsEngine analytics) {
+        this.userRepository = userRepository;
+        this.analytics = analytics;
+    }
+
+    // Called by AnalyticsSnapshotService at startup when there is no snapshot to restore.
+    public void load() {
+        List<Object[]> edges = userRepository.findAllFollowEdges();
+        long[] followerIds = new long[edges.size()];
+        long[] followingIds = new long[edges.size()];
+        for (int e = 0; e < edges.size(); e++) {
+            followerIds[e] = ((Number) edges.get(e)[0]).longValue();
+            followingIds[e] = ((Number) edges.get(e)[1]).longValue();
+        }
+        analytics.loadFollowGraph(followerIds, followingIds, edges.size());
+        log.info("Follow graph loaded with {} edges", edges.size());
+    }
+
+    // Before AnalyticsSnapshotService's own after-commit step, which counts the change as applied.
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onFollowed(UserFollowedEvent event) {
+        analytics.follow(event.followerId(), event.followingId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onUnfollowed(UserUnfollowedEvent event) {
+        analytics.unfollow(event.followerId(), event.followingId());
+    }
+}
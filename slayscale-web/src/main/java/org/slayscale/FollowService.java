@@ -0,0 +1,49 @@
+package org.slayscale;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes follows and unfollows as one idempotent insert or delete on the
+ * {@code user_following} join table plus an atomic update of both counters.
+ * Neither user is loaded, so the cost doesn't depend on how many followers they have.
+ */
+@Service
+public class FollowService {
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public FollowService(UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Make one user follow another.
+     *
+     * @return false if they were already following.
+     * @throws org.springframework.dao.DataIntegrityViolationException if the same follow
+     * was inserted concurrently, i.e., they are now following.
+     */
+    @Transactional
+    public boolean follow(long followerId, long targetId) {
+        if (userRepository.insertFollow(followerId, targetId) == 0) return false;
+        userRepository.adjustFollowCounts(followerId, targetId, 1);
+        eventPublisher.publishEvent(new UserFollowedEvent(followerId, targetId));
+        return true;
+    }
+
+    /**
+     * Make one user stop following another.
+     *
+     * @return false if they weren't following.
+     */
+    @Transactional
+    public boolean unfollow(long followerId, long targetId) {
+        if (userRepository.deleteFollow(followerId, targetId) == 0) return false;
+        userRepository.adjustFollowCounts(followerId, targetId, -1);
+        eventPublisher.publishEvent(new UserUnfollowedEvent(followerId, targetId));
+        return true;
+    }
+}
@@ -0,0 +1,7 @@
+package org.slayscale;
+
+/**
+ * The fields of a review that the search index needs, read without loading the entities.
+ */
+public record IndexedReview(Long id, Category category, int rating, String text) {
+}
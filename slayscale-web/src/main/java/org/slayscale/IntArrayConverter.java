@@ -0,0 +1,29 @@
+package org.slayscale;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stores an {@code int[]} as a packed big-endian binary column.
+ */
+@Converter
+public class IntArrayConverter implements AttributeConverter<int[], byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(int[] values) {
+        if (values == null) return null;
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Integer.BYTES);
+        buffer.asIntBuffer().put(values);
+        return buffer.array();
+    }
+
+    @Override
+    public int[] convertToEntityAttribute(byte[] bytes) {
+        if (bytes == null) return null;
+        int[] values = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(values);
+        return values;
+    }
+}
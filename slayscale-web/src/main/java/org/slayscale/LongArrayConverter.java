@@ -0,0 +1,30 @@
+package org.slayscale;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.slayscale.analytics.ProductFingerprint;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stores a {@code long[]} as a packed big-endian binary column.
+ */
+@Converter
+public class LongArrayConverter implements AttributeConverter<long[], byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(long[] values) {
+        if (values == null) return null;
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Long.BYTES);
+        buffer.asLongBuffer().put(values);
+        return buffer.array();
+    }
+
+    @Override
+    public long[] convertToEntityAttribute(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) return ProductFingerprint.EMPTY;
+        long[] values = new long[bytes.length / Long.BYTES];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(values);
+        return values;
+    }
+}
@@ -0,0 +1,173 @@
+package org.slayscale;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_product_average_rating", columnList = "average_rating DESC, rating_count DESC, id")
+})
+public class Product {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Category category;
+
+    @Column(unique = true, nullable = false)
+    private String url;
+
+    @OneToMany(mappedBy = "product", orphanRemoval = true, fetch = FetchType.LAZY)
+    @JsonIgnore
+    private Set<Review> reviews;
+
+    // Rating aggregates, kept in step with reviews so that rankings never load them.
+    @Column(name = "rating_count")
+    private int ratingCount;
+    private long ratingSum;
+    @Column(name = "average_rating")
+    private double averageRating;
+    @Convert(converter = IntArrayConverter.class)
+    @Column(length = 6 * Integer.BYTES)
+    private int[] ratingHistogram = new int[6]; // number of reviews per star rating, 0 - 5
+
+    // Bumped on every update, including rating changes from reviews, for ETags.
+    @JsonIgnore
+    private long version;
+
+    protected Product() {
+    }
+
+    public Product(Category category, String url) {
+        setCategory(category);
+        setUrl(url);
+        this.reviews = new HashSet<>();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Product product)) return false;
+        return url != null && url.equals(product.getUrl());
+    }
+
+    @Override
+    public int hashCode() {
+        return url != null ? url.hashCode() : 0;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public void setCategory(Category category) {
+        if (category == null ) {
+            throw new IllegalArgumentException("Category cannot be null.");
+        }
+        this.category = category;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("Product url cannot be null or blank.");
+        }
+        this.url = url;
+    }
+
+    public Set<Review> getReviews() {
+        return reviews;
+    }
+
+    public void setReviews(Set<Review> reviews) {
+        if (reviews == null) throw new IllegalArgumentException("Reviews cannot be null.");
+        this.reviews = reviews;
+    }
+
+    public void addReview(Review review) {
+        if (review == null) {
+            throw new IllegalArgumentException("Review cannot be null.");
+        }
+        if (this.reviews.add(review)) {
+            recordRating(review.getRating());
+        }
+    }
+
+    public void removeReview(Review review) {
+        if (review == null) throw new IllegalArgumentException("Review cannot be null.");
+        if (this.reviews.remove(review)) {
+            removeRating(review.getRating());
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @PreUpdate
+    void bumpVersion() {
+        this.version++;
+    }
+
+    public int getRatingCount() {
+        return ratingCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    /**
+     * @return The mean star rating of all reviews, or 0.0 if there are none.
+     */
+    public double getAverageRating() {
+        return averageRating;
+    }
+
+    /**
+     * @return A copy of the number of reviews per star rating, indexed 0 - 5.
+     */
+    public int[] getRatingHistogram() {
+        return histogram().clone();
+    }
+
+    public void recordRating(int rating) {
+        if (rating < 0 || rating > 5) throw new IllegalArgumentException("Rating must be between 0 and 5.");
+        histogram()[rating]++;
+        this.ratingCount++;
+        this.ratingSum += rating;
+        updateAverageRating();
+    }
+
+    public void removeRating(int rating) {
+        if (rating < 0 || rating > 5) throw new IllegalArgumentException("Rating must be between 0 and 5.");
+        if (histogram()[rating] <= 0) throw new IllegalArgumentException("No " + rating + " star rating to remove.");
+        histogram()[rating]--;
+        this.ratingCount--;
+        this.ratingSum -= rating;
+        updateAverageRating();
+    }
+
+    private int[] histogram() {
+        if (ratingHistogram == null) ratingHistogram = new int[6];
+        return ratingHistogram;
+    }
+
+    private void updateAverageRating() {
+        this.averageRating = ratingCount == 0 ? 0.0d : (double) ratingSum / ratingCount;
+    }
+}
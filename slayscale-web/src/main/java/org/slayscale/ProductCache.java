@@ -0,0 +1,113 @@
+package org.slayscale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caches products by ID, product IDs by URL and the product listings per category.
+ * {@link ProductController} caches a product it creates, deleted products are invalidated
+ * from their events, and reviews invalidate the product whose rating aggregates they changed.
+ */
+@Component
+public class ProductCache {
+    // key of the listing of every category
+    private static final String ALL = "*";
+
+    private final BoundedCache<Long, Product> byId;
+    private final BoundedCache<String, Long> idByUrl;
+    private final BoundedCache<String, List<Product>> byCategory;
+
+    public ProductCache(@Value("${slayscale.product-cache.max-size:10000}") int maxSize,
+                        @Value("${slayscale.product-cache.ttl:PT5M}") Duration ttl) {
+        this.byId = new BoundedCache<>(maxSize, ttl.toNanos());
+        this.idByUrl = new BoundedCache<>(maxSize, ttl.toNanos());
+        this.byCategory = new BoundedCache<>(Category.values().length + 1, ttl.toNanos());
+    }
+
+    public Optional<Product> getProduct(Long id, Function<Long, Optional<Product>> loader) {
+        return Optional.ofNullable(byId.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public Optional<Long> getIdByUrl(String url, Function<String, Optional<Product>> loader) {
+        return Optional.ofNullable(idByUrl.get(url, key -> loader.apply(key).map(this::cacheProduct).orElse(null)));
+    }
+
+    /**
+     * @param category The category of the listing, or {@code null} for every product.
+     */
+    public List<Product> getListing(Category category, Supplier<List<Product>> loader) {
+        return byCategory.get(category != null ? category.name() : ALL, key -> {
+            List<Product> products = List.copyOf(loader.get());
+            products.forEach(p -> byId.put(p.getId(), p));
+            return products;
+        });
+    }
+
+    public void onProductCreated(Product product) {
+        cacheProduct(product);
+        invalidateListings(product.getCategory());
+    }
+
+    // After commit, so a concurrent read can't cache the product again before it's gone.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductDeleted(ProductDeletedEvent event) {
+        byId.invalidate(event.productId());
+        idByUrl.invalidate(event.url());
+        invalidateListings(event.category());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewCreated(ReviewCreatedEvent event) {
+        onRatingChanged(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewDeleted(ReviewDeletedEvent event) {
+        onRatingChanged(event.productId());
+    }
+
+    public Map<String, Map<String, Long>> stats() {
+        Map<String, Map<String, Long>> stats = new LinkedHashMap<>();
+        stats.put("byId", stats(byId));
+        stats.put("idByUrl", stats(idByUrl));
+        stats.put("byCategory", stats(byCategory));
+        return stats;
+    }
+
+    private static Map<String, Long> stats(BoundedCache<?, ?> cache) {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) cache.size());
+        stats.put("hits", cache.hits());
+        stats.put("misses", cache.misses());
+        stats.put("evictions", cache.evictions());
+        return stats;
+    }
+
+    private Long cacheProduct(Product product) {
+        byId.put(product.getId(), product);
+        idByUrl.put(product.getUrl(), product.getId());
+        return product.getId();
+    }
+
+    // The cached product's aggregates are stale, and so are the listings holding it.
+    private void onRatingChanged(Long productId) {
+        Product cached = byId.peek(productId);
+        byId.invalidate(productId);
+        if (cached != null) {
+            invalidateListings(cached.getCategory());
+        } else {
+            byCategory.invalidateAll();
+        }
+    }
+
+    private void invalidateListings(Category category) {
+        byCategory.invalidate(category.name());
+        byCategory.invalidate(ALL);
+    }
+}
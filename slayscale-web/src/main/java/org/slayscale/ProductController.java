@@ -0,0 +1,260 @@
+package org.slayscale;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/products")
+public class ProductController {
+    private static final int MAX_DETAIL_REVIEWS = 100;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final Sort BY_RATING =
+            Sort.by(Sort.Order.desc("averageRating"), Sort.Order.desc("ratingCount"), Sort.Order.asc("id"));
+    private static final Sort NEWEST = Sort.by(Sort.Order.desc("id"));
+    private static final Sort OLDEST = Sort.by(Sort.Order.asc("id"));
+
+    private final ProductRepository productRepository;
+    private final ReviewRepository reviewRepository;
+    private final UserRepository userRepository;
+    private final ProductCache productCache;
+    private final CategoryFacets categoryFacets;
+    private final ProductLeaderboardService leaderboards;
+    private final ApplicationEventPublisher eventPublisher;
+    public ProductController(ProductRepository repo, ReviewRepository reviewRepository, UserRepository userRepository,
+                             ProductCache productCache, CategoryFacets categoryFacets,
+                             ProductLeaderboardService leaderboards, ApplicationEventPublisher eventPublisher) {
+        this.productRepository = repo;
+        this.reviewRepository = reviewRepository;
+        this.userRepository = userRepository;
+        this.productCache = productCache;
+        this.categoryFacets = categoryFacets;
+        this.leaderboards = leaderboards;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Get a product's reviews, or 304 Not Modified if the client's ETag still matches
+     * their aggregate version.
+     */
+    @GetMapping("/{id}/reviews")
+    public ResponseEntity<Set<Review>> getProductReviews(@PathVariable Long id, WebRequest request) {
+        Optional<AggregateVersion> version = productRepository.findReviewsVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        if (request.checkNotModified(ETags.of("product-reviews", id, version.get()))) {
+            return null; // 304 Not Modified
+        }
+        return getProductReviews(id);
+    }
+
+    public ResponseEntity<Set<Review>> getProductReviews(Long id) {
+        return productRepository.findById(id)
+                .map(product -> ResponseEntity.ok(product.getReviews()))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Get a product with its latest reviews and their authors' usernames, in one query.
+     *
+     * @param reviews The maximum number of reviews, at most {@value #MAX_DETAIL_REVIEWS}.
+     */
+    @GetMapping("/{id}/detail")
+    public ProductDetail getProductDetail(@PathVariable Long id,
+                                          @RequestParam(required = false, defaultValue = "20") int reviews) {
+        if (reviews <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "reviews must be positive");
+        }
+        List<ProductDetail.Row> rows =
+                productRepository.findDetailRows(id, PageRequest.of(0, Math.min(reviews, MAX_DETAIL_REVIEWS)));
+        if (rows.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return ProductDetail.of(rows);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public ResponseEntity<Product> createProduct(@RequestBody Map<String,String> body) {
+        String url = body.get("url");
+        String category = body.get("category");
+        if (url == null || url.isBlank() || category == null || category.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Category parsed;
+        try {
+            parsed = Category.valueOf(category.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<Long> existing = productCache.getIdByUrl(url.trim(), productRepository::findByUrl);
+        if (existing.isPresent()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        Product saved = productRepository.save(new Product(parsed, url.trim()));
+        productCache.onProductCreated(saved);
+        categoryFacets.onProductCreated(saved);
+        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+    }
+
+    /**
+     * List products, optionally filtered by category. With {@code sort=rating} they are
+     * ranked by their stored average rating, highest first, ties broken by review count.
+     * With a page size, only that page of the listing is read, and {@code sort=newest}
+     * lists the latest products first.
+     * Answers 304 Not Modified if the client's ETag still matches the listing's aggregate version.
+     *
+     * @param size The page size, at most {@value #MAX_PAGE_SIZE}, or none for every product.
+     */
+    @GetMapping
+    public ResponseEntity<List<Product>> listProducts(@RequestParam(required = false) String category,
+                                                      @RequestParam(required = false) String sort,
+                                                      @RequestParam(required = false, defaultValue = "0") int page,
+                                                      @RequestParam(required = false) Integer size,
+                                                      WebRequest request) {
+        Category cat = parseCategory(category);
+        AggregateVersion version = productRepository.findListingVersion(cat);
+        if (request.checkNotModified(ETags.of("products", cat != null ? cat : "all", version))) {
+            return null; // 304 Not Modified
+        }
+        return ResponseEntity.ok(size != null ? listProducts(category, sort, page, size) : listProducts(category, sort));
+    }
+
+    public List<Product> listProducts(String category, String sort) {
+        boolean byRating = "rating".equalsIgnoreCase(sort);
+        Category cat = parseCategory(category);
+        if (cat != null) {
+            return byRating
+                    ? productRepository.findByCategoryOrderByAverageRatingDescRatingCountDescIdAsc(cat)
+                    : productCache.getListing(cat, () -> productRepository.findByCategory(cat));
+        }
+        return byRating
+                ? productRepository.findAllByOrderByAverageRatingDescRatingCountDescIdAsc()
+                : productCache.getListing(null, productRepository::findAll);
+    }
+
+    /**
+     * Get one page of a product listing. The paging and sorting are done by the database.
+     */
+    public List<Product> listProducts(String category, String sort, int page, int size) {
+        if (page < 0 || size <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must not be negative and size must be positive");
+        }
+        Sort order = "rating".equalsIgnoreCase(sort) ? BY_RATING : "newest".equalsIgnoreCase(sort) ? NEWEST : OLDEST;
+        PageRequest pageRequest = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE), order);
+        Category cat = parseCategory(category);
+        return cat != null
+                ? productRepository.findByCategory(cat, pageRequest)
+                : productRepository.findAllBy(pageRequest);
+    }
+
+    /**
+     * Get the number of products and reviews in each category.
+     */
+    @GetMapping("/facets")
+    public Map<Category, CategoryFacets.Counts> getFacets() {
+        return categoryFacets.counts();
+    }
+
+    /**
+     * Get the {@code k} best rated products of a category, best first, ranked by a Bayesian
+     * average of their ratings. Served from memory.
+     *
+     * @param k The number of products, at most {@value #MAX_PAGE_SIZE}.
+     */
+    @GetMapping("/top")
+    public List<ProductLeaderboard.Entry> getTopProducts(@RequestParam Category category,
+                                                         @RequestParam(required = false, defaultValue = "20") int k) {
+        if (k <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "k must be positive");
+        }
+        return leaderboards.top(category, Math.min(k, MAX_PAGE_SIZE));
+    }
+
+    // Blank and unknown categories mean every product.
+    private static Category parseCategory(String category) {
+        if (category == null || category.isBlank()) return null;
+        try {
+            return Category.valueOf(category.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Get a product, or 304 Not Modified if the client's ETag still matches its version.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Product> getProduct(@PathVariable Long id, WebRequest request) {
+        long version = productRepository.findVersionById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (request.checkNotModified(ETags.of("product", id, version))) {
+            return null; // 304 Not Modified
+        }
+        Product product = getProduct(id);
+        if (product.getVersion() < version) {
+            // The cache is only invalidated once a review commits, so it can briefly lag.
+            product = productRepository.findById(id).orElse(product);
+        }
+        return ResponseEntity.ok(product);
+    }
+
+    public Product getProduct(Long id) {
+        return productCache.getProduct(id, productRepository::findById)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Delete a product and its reviews with one bulk delete each, rather than loading every
+     * review for orphan removal. The authors' fingerprints are updated and every deleted
+     * review is published as a {@link ReviewDeletedEvent}, as if it had been deleted on its own.
+     */
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Transactional
+    public void deleteProduct(@PathVariable Long id) {
+        // Locked, so no review of it can be written in the meantime.
+        Product product = productRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
+        List<Object[]> reviews = reviewRepository.findIdsAndAuthorsByProductId(id);
+        Set<Long> authorIds = new HashSet<>();
+        reviews.forEach(row -> authorIds.add((Long) row[1]));
+        Map<Long, User> authors = userRepository.findAllByIdForUpdate(authorIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        for (Object[] row : reviews) {
+            authors.get((Long) row[1]).removeReviewedProductId(id);
+        }
+        reviewRepository.deleteByProductId(id);
+        productRepository.deleteProductById(id);
+        for (Object[] row : reviews) {
+            User author = authors.get((Long) row[1]);
+            eventPublisher.publishEvent(new ReviewDeletedEvent((Long) row[0], author.getId(), id,
+                    product.getCategory(), (Integer) row[2], author.getReviewedProductIds()));
+        }
+        // The cache and the facets are only updated once this commits.
+        eventPublisher.publishEvent(new ProductDeletedEvent(id, product.getCategory(), product.getUrl()));
+    }
+
+    @GetMapping("/cache/stats")
+    public Map<String, Map<String, Long>> getCacheStats() {
+        return productCache.stats();
+    }
+}
@@ -0,0 +1,8 @@
+package org.slayscale;
+
+/**
+ * Published by {@link ProductController} once a product and its reviews have been deleted.
+ * Each of the reviews is also published as a {@link ReviewDeletedEvent}.
+ */
+public record ProductDeletedEvent(Long productId, Category category, String url) {
+}
@@ -0,0 +1,36 @@
+package org.slayscale;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A product with a page of its latest reviews, read straight from the database without loading the entities.
+ */
+public record ProductDetail(Long id, Category category, String url, double averageRating, int ratingCount,
+                            List<ReviewSummary> reviews) {
+
+    /**
+     * One row of the product detail query: the product's columns, repeated on every row,
+     * and one of its reviews, or nulls if it has none.
+     */
+    public record Row(Long id, Category category, String url, double averageRating, int ratingCount,
+                      Long reviewId, Long authorId, String authorUsername, Integer rating, String text) {
+    }
+
+    /**
+     * Assemble a product from the rows of the product detail query, in order.
+     *
+     * @param rows At least one row, all of the same product.
+     */
+    public static ProductDetail of(List<Row> rows) {
+        Row first = rows.get(0);
+        List<ReviewSummary> reviews = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (row.reviewId() == null) continue; // product without reviews
+            reviews.add(new ReviewSummary(row.reviewId(), row.authorId(), row.authorUsername(), first.id(),
+                    row.rating(), row.text()));
+        }
+        return new ProductDetail(first.id(), first.category(), first.url(), first.averageRating(),
+                first.ratingCount(), reviews);
+    }
+}
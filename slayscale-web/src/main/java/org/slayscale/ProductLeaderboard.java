@@ -0,0 +1,110 @@
+package org.slayscale;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Products ranked by the Bayesian average of their ratings: their ratings together with
+ * {@code priorCount} made-up ratings of {@code priorMean}, so a single 5-star review doesn't
+ * outrank many good ones. The prior is fixed, so a rating only ever moves its own product
+ * in the ordering. Only products with at least one rating are ranked.
+ */
+public class ProductLeaderboard {
+
+    /**
+     * @param score The Bayesian average the product is ranked by.
+     */
+    public record Entry(long productId, int ratingCount, long ratingSum, double score) {
+    }
+
+    // Best first, ties broken by the number of ratings, then by the oldest product.
+    private static final Comparator<Entry> RANKING = Comparator.comparingDouble(Entry::score).reversed()
+            .thenComparing(Comparator.comparingInt(Entry::ratingCount).reversed())
+            .thenComparingLong(Entry::productId);
+
+    private final double priorMean;
+    private final double priorCount;
+
+    private final TreeSet<Entry> ranked = new TreeSet<>(RANKING);
+    private final Map<Long, Entry> byProduct = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ProductLeaderboard(double priorMean, double priorCount) {
+        if (priorCount < 0) throw new IllegalArgumentException("priorCount cannot be negative.");
+        this.priorMean = priorMean;
+        this.priorCount = priorCount;
+    }
+
+    /**
+     * Replace every product's ratings. Product {@code i} has {@code ratingCounts[i]}
+     * ratings summing to {@code ratingSums[i]}.
+     */
+    public void load(long[] productIds, int[] ratingCounts, long[] ratingSums) {
+        lock.writeLock().lock();
+        try {
+            ranked.clear();
+            byProduct.clear();
+            for (int i = 0; i < productIds.length; i++) {
+                put(productIds[i], ratingCounts[i], ratingSums[i]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addRating(long productId, int rating) {
+        update(productId, 1, rating);
+    }
+
+    public void removeRating(long productId, int rating) {
+        update(productId, -1, -rating);
+    }
+
+    private void update(long productId, int countDelta, long sumDelta) {
+        lock.writeLock().lock();
+        try {
+            Entry current = byProduct.remove(productId);
+            if (current != null) ranked.remove(current);
+            int count = (current != null ? current.ratingCount() : 0) + countDelta;
+            long sum = (current != null ? current.ratingSum() : 0) + sumDelta;
+            put(productId, count, sum);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(long productId, int ratingCount, long ratingSum) {
+        if (ratingCount <= 0) return;
+        Entry entry = new Entry(productId, ratingCount, ratingSum,
+                (priorCount * priorMean + ratingSum) / (priorCount + ratingCount));
+        byProduct.put(productId, entry);
+        ranked.add(entry);
+    }
+
+    /**
+     * Get the {@code k} best ranked products, best first.
+     */
+    public List<Entry> top(int k) {
+        lock.readLock().lock();
+        try {
+            List<Entry> top = new ArrayList<>(Math.min(k, ranked.size()));
+            Iterator<Entry> entries = ranked.iterator();
+            while (top.size() < k && entries.hasNext()) {
+                top.add(entries.next());
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ranked.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.slayscale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Keeps a {@link ProductLeaderboard} per category, loaded from the products' rating
+ * aggregates at startup and then kept up to date from review events, so the leaderboards
+ * are read without touching the database.
+ */
+@Component
+public class ProductLeaderboardService implements StartupLoader {
+    private static final Logger log = LoggerFactory.getLogger(ProductLeaderboardService.class);
+
+    private final ProductRepository productRepository;
+    private final EnumMap<Category, ProductLeaderboard> leaderboards = new EnumMap<>(Category.class);
+
+    public ProductLeaderboardService(ProductRepository productRepository,
+                                     @Value("${slayscale.leaderboard.prior-mean:3.0}") double priorMean,
+                                     @Value("${slayscale.leaderboard.prior-count:10}") double priorCount) {
+        this.productRepository = productRepository;
+        for (Category category : Category.values()) {
+            leaderboards.put(category, new ProductLeaderboard(priorMean, priorCount));
+        }
+    }
+
+    @Override
+    public void load() {
+        List<Object[]> rows = productRepository.findRatedProductAggregates();
+        EnumMap<Category, List<Object[]>> byCategory = new EnumMap<>(Category.class);
+        for (Object[] row : rows) {
+            byCategory.computeIfAbsent((Category) row[1], category -> new ArrayList<>()).add(row);
+        }
+        for (Category category : Category.values()) {
+            List<Object[]> products = byCategory.getOrDefault(category, List.of());
+            long[] productIds = new long[products.size()];
+            int[] ratingCounts = new int[products.size()];
+            long[] ratingSums = new long[products.size()];
+            for (int i = 0; i < products.size(); i++) {
+                productIds[i] = ((Number) products.get(i)[0]).longValue();
+                ratingCounts[i] = ((Number) products.get(i)[2]).intValue();
+                ratingSums[i] = ((Number) products.get(i)[3]).longValue();
+            }
+            leaderboards.get(category).load(productIds, ratingCounts, ratingSums);
+        }
+        log.info("Leaderboards warmed with {} rated products", rows.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewCreated(ReviewCreatedEvent event) {
+        if (event.category() == null) return;
+        leaderboards.get(event.category()).addRating(event.productId(), event.rating());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewDeleted(ReviewDeletedEvent event) {
+        if (event.category() == null) return;
+        leaderboards.get(event.category()).removeRating(event.productId(), event.rating());
+    }
+
+    /**
+     * Get the {@code k} best rated products of a category, best first.
+     */
+    public List<ProductLeaderboard.Entry> top(Category category, int k) {
+        return leaderboards.get(category).top(k);
+    }
+}
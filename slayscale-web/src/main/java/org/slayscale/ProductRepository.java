@@ -0,0 +1,97 @@
+package org.slayscale;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface ProductRepository extends JpaRepository<Product, Long> {
+    Optional<Product> findByUrl(String url);
+    List<Product> findByCategory(Category category);
+
+    // Paged listings, without the count query a Page would need.
+    List<Product> findAllBy(Pageable page);
+    List<Product> findByCategory(Category category, Pageable page);
+
+    // Ranked listings read the stored aggregates through idx_product_average_rating.
+    List<Product> findAllByOrderByAverageRatingDescRatingCountDescIdAsc();
+    List<Product> findByCategoryOrderByAverageRatingDescRatingCountDescIdAsc(Category category);
+
+    /**
+     * Load a product and lock its row until the transaction ends, so that
+     * concurrent reviews update the rating aggregates one after the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id in :ids")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Clears the persistence context, so the deleted product can't be found in it afterwards.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Product p where p.id = :id")
+    int deleteProductById(@Param("id") Long id);
+
+    // The version of a product, to answer conditional GETs without loading it.
+    @Query("select p.version from Product p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Count the products and their reviews per category, one {@code {category, products, reviews}} row each.
+     */
+    @Query("select p.category, count(p), coalesce(sum(p.ratingCount), 0) from Product p group by p.category")
+    List<Object[]> countByCategory();
+
+    // Each row is {id, category, rating count, rating sum}, one per product with any rating.
+    @Query("select p.id, p.category, p.ratingCount, p.ratingSum from Product p where p.ratingCount > 0")
+    List<Object[]> findRatedProductAggregates();
+
+    /**
+     * Get the aggregate version of a product listing.
+     *
+     * @param category The category of the listing, or {@code null} for every product.
+     */
+    @Query("select new org.slayscale.AggregateVersion(count(p), coalesce(sum(p.version), 0), coalesce(max(p.id), 0)) " +
+            "from Product p where :category is null or p.category = :category")
+    AggregateVersion findListingVersion(@Param("category") Category category);
+
+    /**
+     * Get the aggregate version of a product's reviews. The reviews embed their authors,
+     * so the authors' versions count too. Empty if the product doesn't exist.
+     */
+    @Query("select new org.slayscale.AggregateVersion(count(r), p.version + coalesce(sum(a.version), 0), " +
+            "coalesce(max(r.id), 0)) " +
+            "from Product p left join p.reviews r left join r.author a where p.id = :id group by p.id, p.version")
+    Optional<AggregateVersion> findReviewsVersion(@Param("id") Long id);
+
+    /**
+     * Load a product with its latest reviews and their authors' usernames in one query,
+     * one row per review, newest first. A product without reviews has a single row.
+     * The page bounds the number of reviews.
+     */
+    @Query("select new org.slayscale.ProductDetail$Row(p.id, p.category, p.url, p.averageRating, p.ratingCount, " +
+            "r.id, a.id, a.username, r.rating, r.text) " +
+            "from Product p left join p.reviews r left join r.author a where p.id = :id order by r.id desc")
+    List<ProductDetail.Row> findDetailRows(@Param("id") Long id, Pageable page);
+
+    /** Stream every product read-only, for exports. Must be consumed inside a transaction. */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + ExportController.FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAllForExport();
+}
@@ -0,0 +1,54 @@
+package org.slayscale;
+
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records, per handler method, how many SQL statements a request ran and, for
+ * pages, how long the view took to render. Latency and error counts of every
+ * handler come from Spring's own {@code http.server.requests} timer.
+ */
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+    static final String SQL_STATEMENTS = "slayscale.request.sql.statements";
+    static final String VIEW_RENDER = "slayscale.view.render";
+
+    private static final String RENDER_START = RequestMetricsInterceptor.class.getName() + ".renderStart";
+    private static final String VIEW_NAME = RequestMetricsInterceptor.class.getName() + ".viewName";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.reset();
+        return true;
+    }
+
+    // Called after the handler but before the view is rendered.
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        // Redirects aren't rendered, and their URLs would make a tag per user or product.
+        if (modelAndView != null && modelAndView.getViewName() != null
+                && !modelAndView.getViewName().startsWith("redirect:")) {
+            request.setAttribute(VIEW_NAME, modelAndView.getViewName());
+            request.setAttribute(RENDER_START, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) return;
+        String handlerName = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+
+        Metrics.summary(SQL_STATEMENTS, "handler", handlerName).record(SqlStatementCounter.count());
+        SqlStatementCounter.clear();
+
+        if (request.getAttribute(RENDER_START) instanceof Long renderStart) {
+            Metrics.timer(VIEW_RENDER, "handler", handlerName, "view", (String) request.getAttribute(VIEW_NAME))
+                    .record(System.nanoTime() - renderStart, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.slayscale;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/reviews")
+public class ReviewController {
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReviewSearchService searchService;
+
+    public ReviewController(UserRepository userRepository, ProductRepository productRepository,
+                            ReviewRepository reviewRepository, TransactionTemplate transactionTemplate,
+                            EntityManager entityManager, ObjectMapper objectMapper,
+                            ApplicationEventPublisher eventPublisher, ReviewSearchService searchService) {
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.reviewRepository = reviewRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.searchService = searchService;
+    }
+
+    /**
+     * Find the reviews whose text contains every word of the query, newest first.
+     * Matching ignores case and punctuation.
+     *
+     * @param category  Only reviews of products in this category.
+     * @param minRating Only reviews with at least this rating.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ReviewSummary>> searchReviews(@RequestParam String q,
+                                                             @RequestParam(required = false) Category category,
+                                                             @RequestParam(required = false, defaultValue = "0") int minRating,
+                                                             @RequestParam(required = false, defaultValue = "20") int limit) {
+        if (q.isBlank() || limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        long[] reviewIds = searchService.search(q, category, minRating, Math.min(limit, MAX_SEARCH_RESULTS));
+        if (reviewIds.length == 0) {
+            return ResponseEntity.ok(List.of());
+        }
+
+        // One query for all the results, put back in index order.
+        Map<Long, ReviewSummary> summaries = new HashMap<>();
+        for (ReviewSummary summary : reviewRepository.findSummariesByIdIn(Arrays.stream(reviewIds).boxed().toList())) {
+            summaries.put(summary.reviewId(), summary);
+        }
+        List<ReviewSummary> results = new ArrayList<>(reviewIds.length);
+        for (long reviewId : reviewIds) {
+            ReviewSummary summary = summaries.get(reviewId);
+            if (summary != null) results.add(summary);
+        }
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Ingest reviews in bulk from a JSON array or from NDJSON (one review object per line).
+     * The body is read as a stream and written in chunks of {@value #CHUNK_SIZE}, each in its
+     * own transaction, so earlier chunks stay committed if a later one fails. Invalid reviews
+     * are skipped and reported by their position in the input. Reading stops at the first
+     * review that isn't valid JSON.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON_VALUE})
+    public ResponseEntity<Map<String, Object>> bulkCreateReviews(InputStream body) {
+        int accepted = 0;
+        int position = 0;
+        List<Map<String, Object>> errors = new ArrayList<>();
+        List<BulkReview> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (MappingIterator<BulkReview> reviews = objectMapper.readerFor(BulkReview.class).readValues(body)) {
+            while (reviews.hasNextValue()) {
+                chunk.add(reviews.nextValue());
+                if (chunk.size() == CHUNK_SIZE) {
+                    accepted += ingestChunk(chunk, position, errors);
+                    position += chunk.size();
+                    chunk.clear();
+                }
+            }
+            accepted += ingestChunk(chunk, position, errors);
+            position += chunk.size();
+        } catch (JsonProcessingException e) {
+            // Everything before the malformed review is still ingested.
+            accepted += ingestChunk(chunk, position, errors);
+            position += chunk.size();
+            Map<String, Object> response = ingestionReport(accepted, position, errors);
+            response.put("message", "Malformed review at position " + position + ".");
+            return ResponseEntity.badRequest().body(response);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read the request body.", e);
+        }
+
+        return ResponseEntity.ok(ingestionReport(accepted, position, errors));
+    }
+
+    private static Map<String, Object> ingestionReport(int accepted, int received, List<Map<String, Object>> errors) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("received", received);
+        response.put("accepted", accepted);
+        response.put("rejected", received - accepted);
+        response.put("errors", errors);
+        return response;
+    }
+
+    /**
+     * Validate and insert one chunk. Users and products are resolved and locked with
+     * one IN query each and the reviews are inserted as JDBC batches.
+     *
+     * @param offset The position of the first review of the chunk in the whole input.
+     * @return The number of reviews inserted.
+     */
+    private int ingestChunk(List<BulkReview> chunk, int offset, List<Map<String, Object>> errors) {
+        if (chunk.isEmpty()) return 0;
+
+        Integer inserted = transactionTemplate.execute(status -> {
+            Set<Long> userIds = new HashSet<>();
+            Set<Long> productIds = new HashSet<>();
+            for (BulkReview review : chunk) {
+                if (review.userId() != null) userIds.add(review.userId());
+                if (review.productId() != null) productIds.add(review.productId());
+            }
+            // Products before users, as in every review write, so the locks can't deadlock.
+            Map<Long, Product> products = productRepository.findAllByIdForUpdate(productIds).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            Map<Long, User> users = userRepository.findAllByIdForUpdate(userIds).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+
+            List<Review> reviews = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                BulkReview input = chunk.get(i);
+                String error = validate(input, users, products);
+                if (error != null) {
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add(Map.of("position", offset + i, "error", error));
+                    }
+                    continue;
+                }
+                User author = users.get(input.userId());
+                Product product = products.get(input.productId());
+                // Review owns both associations, so the lazy collections don't need to be loaded.
+                reviews.add(new Review(author, input.rating(), input.text(), product));
+                author.addReviewedProductId(product.getId());
+                product.recordRating(input.rating());
+            }
+            reviewRepository.saveAll(reviews);
+            entityManager.flush();
+
+            for (Review review : reviews) {
+                User author = review.getAuthor();
+                Product product = review.getProduct();
+                eventPublisher.publishEvent(new ReviewCreatedEvent(review.getId(), author.getId(), product.getId(),
+                        product.getCategory(), review.getRating(), review.getText(), author.getReviewedProductIds()));
+            }
+            return reviews.size();
+        });
+
+        // Keep the request's persistence context from growing with every chunk.
+        entityManager.clear();
+        return inserted != null ? inserted : 0;
+    }
+
+    private static String validate(BulkReview review, Map<Long, User> users, Map<Long, Product> products) {
+        if (review == null) return "Review cannot be null.";
+        if (review.userId() == null || !users.containsKey(review.userId())) return "User not found.";
+        if (review.productId() == null || !products.containsKey(review.productId())) return "Product not found.";
+        if (review.rating() == null || review.rating() < 0 || review.rating() > 5) return "Rating must be between 0 and 5.";
+        if (review.text() == null) return "Text cannot be null.";
+        return null;
+    }
+}
@@ -0,0 +1,12 @@
+package org.slayscale;
+
+/**
+ * Published by {@link UserController} after a review has been written, and by
+ * {@link ReviewController} for each review of a bulk import.
+ *
+ * @param category         The category of the reviewed product.
+ * @param authorProductIds The author's product fingerprint after the review was added.
+ */
+public record ReviewCreatedEvent(Long reviewId, Long authorId, Long productId, Category category, int rating,
+                                 String text, long[] authorProductIds) {
+}
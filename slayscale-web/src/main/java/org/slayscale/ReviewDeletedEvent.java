@@ -0,0 +1,12 @@
+package org.slayscale;
+
+/**
+ * Published by {@link UserController} after a review has been deleted, and by
+ * {@link ProductController} for each review of a deleted product.
+ *
+ * @param category         The category of the reviewed product.
+ * @param authorProductIds The author's product fingerprint after the review was removed.
+ */
+public record ReviewDeletedEvent(Long reviewId, Long authorId, Long productId, Category category, int rating,
+                                 long[] authorProductIds) {
+}
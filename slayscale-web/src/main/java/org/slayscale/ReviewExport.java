@@ -0,0 +1,7 @@
+package org.slayscale;
+
+/**
+ * One review in an export, read straight from the database without loading the entities.
+ */
+public record ReviewExport(Long id, Long userId, Long productId, int rating, String text) {
+}
@@ -0,0 +1,47 @@
+package org.slayscale;
+
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface ReviewRepository extends JpaRepository<Review, Long> {
+
+    /** Stream every review as a projection, for exports. Must be consumed inside a transaction. */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + ExportController.FETCH_SIZE))
+    @Query("select new org.slayscale.ReviewExport(r.id, r.author.id, r.product.id, r.rating, r.text) from Review r order by r.id")
+    Stream<ReviewExport> streamAllForExport();
+
+    @Query("select new org.slayscale.ReviewSummary(r.id, a.id, a.username, r.product.id, r.rating, r.text) " +
+            "from Review r join r.author a where r.id in :ids")
+    List<ReviewSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** Stream every review with its product category, for the search index. Must be consumed inside a transaction. */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + ExportController.FETCH_SIZE))
+    @Query("select new org.slayscale.IndexedReview(r.id, p.category, r.rating, r.text) from Review r join r.product p order by r.id")
+    Stream<IndexedReview> streamAllForSearch();
+
+    Optional<Review> findByIdAndAuthorId(Long id, Long authorId);
+
+    // Each row is {review id, author id, rating}, one per review of the product.
+    @Query("select r.id, r.author.id, r.rating from Review r where r.product.id = :productId")
+    List<Object[]> findIdsAndAuthorsByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("delete from Review r where r.product.id = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+
+    // Each row is {review id, author id}, newest first.
+    @Query("select r.id, r.author.id from Review r order by r.id desc")
+    List<Object[]> findLatestReviewAuthors(Pageable page);
+}
@@ -0,0 +1,356 @@
+package org.slayscale;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from the words of review texts to the IDs of the reviews containing
+ * them. Each posting list is a run of blocks of about {@value #BLOCK_SIZE} delta-encoded
+ * varints, each with its first and last ID kept uncompressed, plus a sorted tail for
+ * recent additions that becomes a new block once it fills up. A query walks the lists
+ * block by block from the newest, driven by the rarest word, and only decodes the blocks
+ * of the other words that can hold its next candidate. Deleted reviews are dropped from
+ * the tail when it becomes a block, and from every block once enough have piled up.
+ */
+public class ReviewSearchIndex {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int BLOCK_SIZE = 128;
+    private static final int MIN_PURGE = 1_000;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    // The category ordinal and rating of every live review, packed in a short.
+    private final Map<Long, Short> reviews = new HashMap<>();
+    private int removedSincePurge;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Split text into lowercase words of letters and digits, without duplicates.
+     */
+    public static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) return terms;
+        for (String term : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (term.length() >= MIN_TERM_LENGTH) terms.add(term);
+        }
+        return terms;
+    }
+
+    public void add(long reviewId, Category category, int rating, String text) {
+        Set<String> terms = tokenize(text);
+        lock.writeLock().lock();
+        try {
+            if (reviews.put(reviewId, (short) (category.ordinal() << 8 | rating)) != null) return; // already indexed
+            for (String term : terms) {
+                postings.computeIfAbsent(term, t -> new Postings()).add(reviewId, reviews);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long reviewId) {
+        lock.writeLock().lock();
+        try {
+            if (reviews.remove(reviewId) == null) return;
+            // Purging rewrites every list, so wait until a good share of the postings are dead.
+            if (++removedSincePurge > Math.max(MIN_PURGE, reviews.size() / 4)) {
+                for (Iterator<Postings> lists = postings.values().iterator(); lists.hasNext(); ) {
+                    if (lists.next().purge(reviews) == 0) lists.remove();
+                }
+                removedSincePurge = 0;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return reviews.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the IDs of up to {@code limit} reviews containing every word of the query,
+     * newest first.
+     *
+     * @param category  Only reviews of products in this category, or null for any.
+     * @param minRating Only reviews with at least this rating.
+     */
+    public long[] search(String query, Category category, int minRating, int limit) {
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) return new long[0];
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) return new long[0];
+                lists.add(list);
+            }
+            // The rarest word proposes the candidates and the others only seek to them.
+            lists.sort(Comparator.comparingInt(Postings::size));
+            Cursor[] cursors = new Cursor[lists.size()];
+            for (int i = 0; i < cursors.length; i++) {
+                cursors[i] = new Cursor(lists.get(i));
+            }
+
+            long[] result = new long[Math.min(limit, lists.get(0).size())];
+            int size = 0;
+            candidates:
+            while (size < result.length) {
+                long candidate = cursors[0].current();
+                if (candidate < 0) break;
+                for (int i = 1; i < cursors.length; i++) {
+                    cursors[i].seek(candidate);
+                    long id = cursors[i].current();
+                    if (id < 0) break candidates;
+                    if (id < candidate) {
+                        cursors[0].seek(id);
+                        continue candidates;
+                    }
+                }
+                Short packed = reviews.get(candidate);
+                if (packed != null // not deleted
+                        && (category == null || packed >> 8 == category.ordinal())
+                        && (packed & 0xFF) >= minRating) {
+                    result[size++] = candidate;
+                }
+                cursors[0].next();
+            }
+            return Arrays.copyOf(result, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The sorted review IDs of one word: compressed blocks and an uncompressed tail of
+     * IDs higher than every block's.
+     */
+    private static final class Postings {
+        private byte[][] blocks = new byte[1][];
+        private long[] firstIds = new long[1];
+        private long[] lastIds = new long[1];
+        private int[] counts = new int[1];
+        private int blockCount;
+        private long[] tail = new long[4];
+        private int tailSize;
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void add(long reviewId, Map<Long, Short> live) {
+            // IDs nearly always arrive in increasing order, so they nearly always go to the tail.
+            if (blockCount > 0 && reviewId <= lastIds[blockCount - 1]) {
+                int b = blockFor(reviewId);
+                long[] ids = decode(b, new long[counts[b] + 1]);
+                int at = Arrays.binarySearch(ids, 0, counts[b], reviewId);
+                if (at >= 0) return; // left over from before a removal
+                at = -at - 1;
+                System.arraycopy(ids, at, ids, at + 1, counts[b] - at);
+                ids[at] = reviewId;
+                setBlock(b, ids, 0, counts[b] + 1);
+                size++;
+                return;
+            }
+            int at = Arrays.binarySearch(tail, 0, tailSize, reviewId);
+            if (at >= 0) return;
+            at = -at - 1;
+            if (tailSize == tail.length) tail = Arrays.copyOf(tail, tail.length * 2);
+            System.arraycopy(tail, at, tail, at + 1, tailSize - at);
+            tail[at] = reviewId;
+            tailSize++;
+            size++;
+            if (tailSize == BLOCK_SIZE) flushTail(live);
+        }
+
+        // Turn the tail into a new block, dropping the IDs of deleted reviews.
+        private void flushTail(Map<Long, Short> live) {
+            int n = 0;
+            for (int i = 0; i < tailSize; i++) {
+                if (live.containsKey(tail[i])) tail[n++] = tail[i];
+            }
+            size -= tailSize - n;
+            if (n > 0) {
+                if (blockCount == blocks.length) growBlocks();
+                setBlock(blockCount++, tail, 0, n);
+            }
+            tailSize = 0;
+        }
+
+        /**
+         * Drop the IDs of deleted reviews from every block and the tail.
+         *
+         * @return The number of IDs left.
+         */
+        int purge(Map<Long, Short> live) {
+            int n = 0;
+            for (int i = 0; i < tailSize; i++) {
+                if (live.containsKey(tail[i])) tail[n++] = tail[i];
+            }
+            tailSize = n;
+            int kept = 0;
+            long[] ids = new long[0];
+            for (int b = 0; b < blockCount; b++) {
+                ids = decode(b, ids.length < counts[b] ? new long[counts[b]] : ids);
+                n = 0;
+                for (int i = 0; i < counts[b]; i++) {
+                    if (live.containsKey(ids[i])) ids[n++] = ids[i];
+                }
+                if (n > 0) setBlock(kept++, ids, 0, n);
+            }
+            Arrays.fill(blocks, kept, blockCount, null);
+            blockCount = kept;
+            size = tailSize;
+            for (int b = 0; b < blockCount; b++) {
+                size += counts[b];
+            }
+            return size;
+        }
+
+        // The first block whose last ID is at least the given one.
+        private int blockFor(long reviewId) {
+            int low = 0, high = blockCount - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (lastIds[middle] < reviewId) low = middle + 1;
+                else high = middle;
+            }
+            return low;
+        }
+
+        // The last block whose first ID is at most the given one, or -1 if there is none.
+        int blockAtOrBelow(long reviewId, int below) {
+            int low = 0, high = below;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (firstIds[middle] <= reviewId) low = middle + 1;
+                else high = middle;
+            }
+            return low - 1;
+        }
+
+        private void growBlocks() {
+            int capacity = blocks.length * 2;
+            blocks = Arrays.copyOf(blocks, capacity);
+            firstIds = Arrays.copyOf(firstIds, capacity);
+            lastIds = Arrays.copyOf(lastIds, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+
+        // Each ID after the block's first is stored as a varint of its difference to the one before.
+        private void setBlock(int b, long[] ids, int from, int count) {
+            byte[] out = new byte[(count - 1) * 2 + 10];
+            int pos = 0;
+            for (int i = from + 1; i < from + count; i++) {
+                long delta = ids[i] - ids[i - 1];
+                if (pos + 10 > out.length) out = Arrays.copyOf(out, out.length * 2);
+                while ((delta & ~0x7FL) != 0) {
+                    out[pos++] = (byte) ((delta & 0x7F) | 0x80);
+                    delta >>>= 7;
+                }
+                out[pos++] = (byte) delta;
+            }
+            blocks[b] = Arrays.copyOf(out, pos);
+            firstIds[b] = ids[from];
+            lastIds[b] = ids[from + count - 1];
+            counts[b] = count;
+        }
+
+        long[] decode(int b, long[] ids) {
+            byte[] block = blocks[b];
+            long previous = firstIds[b];
+            ids[0] = previous;
+            int pos = 0;
+            for (int i = 1; i < counts[b]; i++) {
+                long delta = 0;
+                int shift = 0;
+                byte v;
+                do {
+                    v = block[pos++];
+                    delta |= (long) (v & 0x7F) << shift;
+                    shift += 7;
+                } while (v < 0);
+                previous += delta;
+                ids[i] = previous;
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Walks a posting list from its highest ID down, decoding one block at a time.
+     * The tail counts as the block after the last one.
+     */
+    private static final class Cursor {
+        private final Postings list;
+        private long[] ids;
+        private int block;
+        private int count;
+        private int position;
+
+        Cursor(Postings list) {
+            this.list = list;
+            this.ids = new long[BLOCK_SIZE];
+            load(list.blockCount);
+            position = count - 1;
+            if (position < 0) moveToBlock(list.blockCount - 1);
+        }
+
+        // The current ID, or -1 once the list is exhausted.
+        long current() {
+            return position >= 0 ? ids[position] : -1;
+        }
+
+        void next() {
+            if (--position < 0) moveToBlock(block - 1);
+        }
+
+        // Move down to the highest ID at most the given one.
+        void seek(long target) {
+            if (position < 0 || ids[position] <= target) return;
+            if (ids[0] > target) {
+                // The blocks are sorted, so the first IDs tell which block to decode next.
+                int b = list.blockAtOrBelow(target, block < list.blockCount ? block : list.blockCount);
+                if (b < 0) {
+                    position = -1;
+                    return;
+                }
+                load(b);
+            }
+            int at = Arrays.binarySearch(ids, 0, count, target);
+            position = at >= 0 ? at : -at - 2;
+        }
+
+        private void moveToBlock(int b) {
+            if (b < 0) {
+                position = -1;
+                return;
+            }
+            load(b);
+            position = count - 1;
+        }
+
+        private void load(int b) {
+            block = b;
+            if (b == list.blockCount) {
+                ids = list.tail;
+                count = list.tailSize;
+                return;
+            }
+            count = list.counts[b];
+            if (ids == list.tail || ids.length < count) ids = new long[Math.max(count, BLOCK_SIZE)];
+            list.decode(b, ids);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.slayscale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Keeps a {@link ReviewSearchIndex} of every review's text up to date from review events.
+ */
+@Component
+public class ReviewSearchService implements StartupLoader {
+    private static final Logger log = LoggerFactory.getLogger(ReviewSearchService.class);
+
+    private final ReviewRepository reviewRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReviewSearchIndex index = new ReviewSearchIndex();
+
+    public ReviewSearchService(ReviewRepository reviewRepository, TransactionTemplate transactionTemplate) {
+        this.reviewRepository = reviewRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Stream the whole table in ID order, so the posting lists are built without sorting.
+    @Override
+    public void load() {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<IndexedReview> reviews = reviewRepository.streamAllForSearch()) {
+                reviews.forEach(review -> index.add(review.id(), review.category(), review.rating(), review.text()));
+            }
+        });
+        log.info("Search index built with {} reviews", index.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewCreated(ReviewCreatedEvent event) {
+        if (event.reviewId() == null || event.category() == null) return;
+        index.add(event.reviewId(), event.category(), event.rating(), event.text());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewDeleted(ReviewDeletedEvent event) {
+        if (event.reviewId() != null) index.remove(event.reviewId());
+    }
+
+    /**
+     * Get the IDs of up to {@code limit} reviews containing every word of the query, newest first.
+     *
+     * @param category Only reviews of products in this category, or null for any.
+     */
+    public long[] search(String query, Category category, int minRating, int limit) {
+        return index.search(query, category, minRating, limit);
+    }
+}
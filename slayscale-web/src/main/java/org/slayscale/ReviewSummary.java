@@ -0,0 +1,7 @@
+package org.slayscale;
+
+/**
+ * A review with its author's username, read straight from the database without loading the entities.
+ */
+public record ReviewSummary(Long reviewId, Long authorId, String authorUsername, Long productId, int rating, String text) {
+}
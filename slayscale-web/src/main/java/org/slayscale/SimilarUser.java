@@ -0,0 +1,7 @@
+package org.slayscale;
+
+/**
+ * A user and their Jaccard similarity to some base user.
+ */
+public record SimilarUser(Long id, String username, double similarity) {
+}
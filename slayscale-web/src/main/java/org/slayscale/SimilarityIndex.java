@@ -0,0 +1,56 @@
+package org.slayscale;
+
+import org.slayscale.analytics.AnalyticsEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Loads every user's product fingerprint into the {@link AnalyticsEngine}
+ * and keeps them up to date from review events, for SIMILARITY sorting and
+ * top-K lookups among co-reviewers.
+ */
+@Component
+public class SimilarityIndex {
+    private static final Logger log = LoggerFactory.getLogger(SimilarityIndex.class);
+
+    private final UserRepository userRepository;
+    private final AnalyticsEngine analytics;
+
+    public SimilarityIndex(UserRepository userRepository, AnalyticsEngine analytics) {
+        this.userRepository = userRepository;
+        this.analytics = analytics;
+    }
+
+    // Only the IDs and fingerprint columns, not whole users with their reviews.
+    // Called by AnalyticsSnapshotService at startup when there is no snapshot to restore.
+    public void warm() {
+        List<Object[]> rows = userRepository.findAllFingerprints();
+        long[] userIds = new long[rows.size()];
+        long[][] fingerprints = new long[rows.size()][];
+        for (int i = 0; i < rows.size(); i++) {
+            userIds[i] = ((Number) rows.get(i)[0]).longValue();
+            fingerprints[i] = (long[]) rows.get(i)[1];
+        }
+        analytics.loadFingerprints(userIds, fingerprints);
+        log.info("Similarity index warmed with {} users", userIds.length);
+    }
+
+    // The fingerprint has to be in the engine before AnalyticsSnapshotService counts the change as applied.
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onReviewCreated(ReviewCreatedEvent event) {
+        analytics.putFingerprint(event.authorId(), event.authorProductIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onReviewDeleted(ReviewDeletedEvent event) {
+        analytics.putFingerprint(event.authorId(), event.authorProductIds());
+    }
+}
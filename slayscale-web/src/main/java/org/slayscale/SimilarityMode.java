@@ -0,0 +1,6 @@
+package org.slayscale;
+
+public enum SimilarityMode {
+    EXACT,
+    APPROXIMATE
+}
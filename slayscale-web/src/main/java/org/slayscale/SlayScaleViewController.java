@@ -20,6 +20,9 @@ public class SlayScaleViewController {
     private final UserController userController;
     private final ProductController productController;
 
+    private static final int USERS_PAGE_SIZE = 24;
+    private static final int PRODUCT_REVIEWS_PAGE_SIZE = 50;
+
     public SlayScaleViewController(UserController userController, ProductController productController) {
         this.userController = userController;
         this.productController = productController;
@@ -59,7 +62,7 @@ public class SlayScaleViewController {
     public String productsPage(@RequestParam(value = "error", required = false) String error,
                                @RequestParam(value = "success", required = false) String success,
                                Model model) {
-        List<Product> products = productController.listProducts("");
+        List<Product> products = productController.listProducts("", null);
         model.addAttribute("products", products);
         model.addAttribute("categories", Category.values());
 
@@ -103,13 +106,10 @@ public class SlayScaleViewController {
                                 @RequestParam(value = "success", required = false) String success,
                                 Model model) {
 
-        Product product = productController.getProduct(id);
+        // The product, its latest reviews and their authors in one query.
+        ProductDetail product = productController.getProductDetail(id, PRODUCT_REVIEWS_PAGE_SIZE);
         model.addAttribute("product", product);
-
-        ResponseEntity<Set<Review>> reviewsResp = productController.getProductReviews(id);
-
-        Set<Review> reviews = reviewsResp != null && reviewsResp.getBody() != null ? reviewsResp.getBody() : Set.of();
-        model.addAttribute("reviews", reviews);
+        model.addAttribute("reviews", product.reviews());
 
         if (error != null) model.addAttribute("error", error);
         if (success != null) model.addAttribute("success", success);
@@ -151,13 +151,15 @@ public class SlayScaleViewController {
     @GetMapping("/users")
     public String usersPage(
             @RequestParam(defaultValue = "DEFAULT") UserSortStrategy sortStrategy,
+            @RequestParam(required = false) String cursor,
             @SessionAttribute(name = "currentUserId", required = false) Long currentUserId,
             Model model
     ) {
-        var resp = userController.getAllUsers(sortStrategy, currentUserId);
+        var resp = userController.getAllUsers(sortStrategy, currentUserId, SimilarityMode.EXACT, USERS_PAGE_SIZE, cursor);
         var users = resp.getBody() != null ? resp.getBody() : List.<User>of();
 
         model.addAttribute("users", users);
+        model.addAttribute("nextCursor", resp.getHeaders().getFirst(UserController.NEXT_CURSOR_HEADER));
         model.addAttribute("sortStrategy", sortStrategy.name()); // so the <select> can show the current choice
         model.addAttribute("activeTab", "users");
 
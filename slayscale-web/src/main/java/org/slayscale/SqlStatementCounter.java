@@ -0,0 +1,33 @@
+package org.slayscale;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * Registered with {@code hibernate.session_factory.statement_inspector},
+ * so it sees every query, including native ones.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /** Start counting from 0 on the current thread. */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /** Get the number of statements prepared on the current thread since the last {@link #reset()}. */
+    public static int count() {
+        return COUNT.get()[0];
+    }
+
+    /** Stop counting on the current thread, e.g., before it goes back to a pool. */
+    public static void clear() {
+        COUNT.remove();
+    }
+}
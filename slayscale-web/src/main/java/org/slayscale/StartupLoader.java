@@ -0,0 +1,19 @@
+package org.slayscale;
+
+/**
+ * An in-memory projection of the database, such as the category counts or the follow graph,
+ * that is read in bulk once at startup and then kept up to date from events.
+ *
+ * <p>{@link StartupLoaders} runs every loader once all beans have been created, before the
+ * web server starts, so no request can publish an event while a projection is being read
+ * and then have its change overwritten by the older bulk state. Loaders run in
+ * {@link org.springframework.core.annotation.Order @Order}, so one that reads another
+ * projection is ordered after it.
+ */
+public interface StartupLoader {
+
+    /**
+     * Replace the projection with the current state of the database.
+     */
+    void load();
+}
@@ -0,0 +1,23 @@
+package org.slayscale;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs every {@link StartupLoader} in order, before the web server starts.
+ */
+@Component
+public class StartupLoaders implements SmartInitializingSingleton {
+
+    private final ObjectProvider<StartupLoader> loaders;
+
+    public StartupLoaders(ObjectProvider<StartupLoader> loaders) {
+        this.loaders = loaders;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        loaders.orderedStream().forEach(StartupLoader::load);
+    }
+}
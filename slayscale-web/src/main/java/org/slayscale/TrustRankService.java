@@ -0,0 +1,55 @@
+package org.slayscale;
+
+import io.micrometer.core.instrument.Metrics;
+import org.slayscale.analytics.AnalyticsEngine;
+import org.slayscale.analytics.TrustRanking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically has the {@link AnalyticsEngine} rank every user by PageRank over the
+ * follow graph for MOST_TRUSTED sorting.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE) // after AnalyticsSnapshotService has loaded the follow graph
+public class TrustRankService implements StartupLoader {
+    private static final Logger log = LoggerFactory.getLogger(TrustRankService.class);
+
+    private final AnalyticsEngine analytics;
+    private final double damping;
+    private final double tolerance;
+    private final int maxIterations;
+
+    public TrustRankService(AnalyticsEngine analytics,
+                            @Value("${slayscale.trust.damping:0.85}") double damping,
+                            @Value("${slayscale.trust.tolerance:1e-6}") double tolerance,
+                            @Value("${slayscale.trust.max-iterations:100}") int maxIterations) {
+        this.analytics = analytics;
+        this.damping = damping;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+    }
+
+    @Override
+    public void load() {
+        recompute();
+    }
+
+    @Scheduled(fixedDelayString = "${slayscale.trust.recompute-interval:PT5M}",
+            initialDelayString = "${slayscale.trust.recompute-interval:PT5M}")
+    public void recompute() {
+        TrustRanking ranking = analytics.rankByTrust(damping, tolerance, maxIterations);
+        Metrics.timer("slayscale.trust.recompute").record(ranking.getDurationNanos(), TimeUnit.NANOSECONDS);
+        Metrics.summary("slayscale.trust.iterations").record(ranking.getIterations());
+        log.info("Trust ranking computed for {} users in {} ms, {} iterations, residual {}",
+                ranking.userCount(), TimeUnit.NANOSECONDS.toMillis(ranking.getDurationNanos()),
+                ranking.getIterations(), ranking.getResidual());
+    }
+}
@@ -2,13 +2,16 @@ package org.slayscale;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.slayscale.analytics.ProductFingerprint;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "app_user")
+@Table(name = "app_user", indexes = {
+        @Index(name = "idx_app_user_follower_count", columnList = "follower_count DESC, id")
+})
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -35,9 +38,28 @@ public class User {
     @JsonIgnore // avoid infinite recursion
     private Set<User> following;
 
+    @Column(name = "follower_count")
     private int followerCount;
     private int followingCount;
 
+    // Sorted IDs of the reviewed products, kept in step with reviews so that
+    // similarity never has to initialize the lazy reviews collection.
+    @Lob
+    @Convert(converter = LongArrayConverter.class)
+    @Column(name = "reviewed_product_ids")
+    @JsonIgnore
+    private long[] reviewedProductIds = ProductFingerprint.EMPTY;
+
+    // Set once a review of a product without an ID was added, which the fingerprint can't hold.
+    @Transient
+    @JsonIgnore
+    private boolean reviewedUnsavedProduct;
+
+    // Bumped on every update, including the bulk follow counter updates, for ETags.
+    // Not a JPA @Version, so concurrent writers aren't rejected.
+    @JsonIgnore
+    private long version;
+
     protected User() {}
 
     public User(String username) {
@@ -59,28 +81,46 @@ public class User {
      */
     public double getSimilarity(User other) {
         if (other == null) throw new IllegalArgumentException("User cannot be null.");
+        if (this.reviewedUnsavedProduct || other.reviewedUnsavedProduct) {
+            return productSetSimilarity(other);
+        }
+        return ProductFingerprint.jaccard(this.getReviewedProductIds(), other.getReviewedProductIds());
+    }
 
+    // Jaccard similarity over the reviewed products themselves, for reviews of unsaved products.
+    private double productSetSimilarity(User other) {
         Set<Product> thisProducts = this.reviews.stream()
                 .map(Review::getProduct)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
-
         Set<Product> otherProducts = other.getReviews().stream()
                 .map(Review::getProduct)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
-
         if (thisProducts.isEmpty() && otherProducts.isEmpty()) {
             return 0.0d;
         }
-
         Set<Product> intersection = new HashSet<>(thisProducts);
         intersection.retainAll(otherProducts);
-
         Set<Product> union = new HashSet<>(thisProducts);
         union.addAll(otherProducts);
+        return (double) intersection.size() / union.size();
+    }
+
+    /**
+     * @return The sorted IDs of the products this user reviewed, one entry per review.
+     */
+    public long[] getReviewedProductIds() {
+        return reviewedProductIds != null ? reviewedProductIds : ProductFingerprint.EMPTY;
+    }
+
+    public long getVersion() {
+        return version;
+    }
 
-        return (double) intersection.size()/union.size();
+    @PreUpdate
+    void bumpVersion() {
+        this.version++;
     }
 
     public Long getId() {
@@ -112,16 +152,50 @@ public class User {
     public void setReviews(Set<Review> reviews) {
         if (reviews == null) throw new IllegalArgumentException("reviews cannot be null.");
         this.reviews = reviews;
+        this.reviewedProductIds = ProductFingerprint.EMPTY;
+        reviews.forEach(r -> recordReviewedProduct(r.getProduct()));
     }
 
     public void addReview(Review review) {
         if (review == null) throw new IllegalArgumentException("review to add cannot be null.");
-        this.reviews.add(review);
+        if (this.reviews.add(review)) {
+            recordReviewedProduct(review.getProduct());
+        }
     }
 
     public void removeReview(Review review) {
         if (review == null) throw new IllegalArgumentException("review to remove cannot be null.");
-        this.reviews.remove(review);
+        if (this.reviews.remove(review)) {
+            forgetReviewedProduct(review.getProduct());
+        }
+    }
+
+    // Products that haven't been saved yet have no ID and are left out of the fingerprint;
+    // getSimilarity then compares the reviewed products instead.
+    private void recordReviewedProduct(Product product) {
+        if (product == null) return;
+        if (product.getId() == null) {
+            reviewedUnsavedProduct = true;
+            return;
+        }
+        addReviewedProductId(product.getId());
+    }
+
+    private void forgetReviewedProduct(Product product) {
+        if (product == null || product.getId() == null) return;
+        removeReviewedProductId(product.getId());
+    }
+
+    /**
+     * Record a review of the product in the fingerprint without touching the
+     * reviews collection, for reviews that are persisted on their own.
+     */
+    public void addReviewedProductId(long productId) {
+        this.reviewedProductIds = ProductFingerprint.insert(getReviewedProductIds(), productId);
+    }
+
+    public void removeReviewedProductId(long productId) {
+        this.reviewedProductIds = ProductFingerprint.remove(getReviewedProductIds(), productId);
     }
 
     public int getFollowerCount() {
@@ -0,0 +1,479 @@
+package org.slayscale;
+
+import io.micrometer.core.instrument.Metrics;
+import org.slayscale.analytics.AnalyticsEngine;
+import org.slayscale.analytics.CoReviewIndex;
+import org.slayscale.analytics.TrustRanking;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+@RestController
+@RequestMapping("/api/users")
+public class UserController {
+
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final ReviewRepository reviewRepository;
+    private final AnalyticsEngine analytics;
+    private final FollowService followService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int DEFAULT_SIMILAR_USERS = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEPARATION_DEPTH = 12;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    static final String SORT_TIMER = "slayscale.users.sort";
+    static final String USERS_SCORED = "slayscale.users.scored";
+
+    public UserController(UserRepository userRepository, ProductRepository productRepository,
+                          ReviewRepository reviewRepository, AnalyticsEngine analytics,
+                          FollowService followService, ApplicationEventPublisher eventPublisher) {
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.reviewRepository = reviewRepository;
+        this.analytics = analytics;
+        this.followService = followService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<User>> getAllUsers(
+            @RequestParam(required = false, defaultValue = "DEFAULT") UserSortStrategy sortStrategy,
+            @RequestParam(required = false) Long baseUserId,
+            @RequestParam(required = false, defaultValue = "EXACT") SimilarityMode similarityMode,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        return Metrics.timer(SORT_TIMER, "strategy", sortStrategy.name(), "mode", similarityMode.name())
+                .record(() -> sortUsers(sortStrategy, baseUserId, similarityMode, limit, cursor));
+    }
+
+    private ResponseEntity<List<User>> sortUsers(UserSortStrategy sortStrategy, Long baseUserId,
+                                                 SimilarityMode similarityMode, Integer limit, String cursor) {
+        if (limit != null && limit <= 0) {
+            return ResponseEntity.badRequest().body(null);
+        }
+        if (sortStrategy == UserSortStrategy.SIMILARITY && similarityMode == SimilarityMode.APPROXIMATE) {
+            return getApproximatelySimilarUsers(baseUserId, limit);
+        }
+        boolean ranked = sortStrategy == UserSortStrategy.SIMILARITY || sortStrategy == UserSortStrategy.MOST_TRUSTED;
+        if (!ranked && (limit != null || cursor != null)) {
+            try {
+                return getUserPage(sortStrategy, cursor, limit);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(null);
+            }
+        }
+        // Similarity and trust scores can't be paged by key, so their pages start at an offset.
+        int offset;
+        try {
+            offset = cursor != null ? UserCursor.decode(cursor, sortStrategy).offset() : 0;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+        int size = limit != null ? limit : cursor != null ? MAX_PAGE_SIZE : Integer.MAX_VALUE;
+        if (sortStrategy == UserSortStrategy.MOST_TRUSTED) {
+            return getMostTrustedUsers(offset, size);
+        }
+
+        // MOST_FOLLOWED is ordered by the database, the other strategies start from the table order.
+        List<User> users = sortStrategy == UserSortStrategy.MOST_FOLLOWED
+                ? userRepository.findAllByOrderByFollowerCountDescIdAsc()
+                : userRepository.findAll();
+
+        // Use a registry to store sorting strategies with lambdas to implement them.
+        // Sorting strategies that don't need a base user ID can simply ignore it.
+        // Strategies that the database already orders do not need to be implemented here.
+        final Map<UserSortStrategy, BiConsumer<List<User>, Long>> sortStrategyRegistry = Map.of(
+
+                UserSortStrategy.SIMILARITY, (list, id) -> {
+                    if (id == null) {
+                        throw new IllegalArgumentException("baseUserId is required for SIMILARITY sorting");
+                    }
+                    userRepository.findById(id).ifPresent(baseUser -> sortBySimilarity(list, baseUser, SimilarityMode.EXACT));
+                }
+
+                // Register more sorting strategies here:
+        );
+
+        try {
+            sortStrategyRegistry
+                    .getOrDefault(sortStrategy, (l, i) -> {})
+                    .accept(users, baseUserId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+
+        return getRankedPage(sortStrategy, users, offset, size, users.size());
+    }
+
+    /**
+     * Get one keyset page of users ordered in the database. The cursor for the
+     * following page is returned in the {@value #NEXT_CURSOR_HEADER} header
+     * and is absent on the last page.
+     */
+    private ResponseEntity<List<User>> getUserPage(UserSortStrategy sortStrategy, String cursor, Integer limit) {
+        int size = Math.min(limit != null ? limit : MAX_PAGE_SIZE, MAX_PAGE_SIZE);
+        UserCursor position = cursor != null ? UserCursor.decode(cursor, sortStrategy) : UserCursor.start(sortStrategy);
+
+        // Fetch one extra row to know whether there is a next page.
+        Pageable page = PageRequest.of(0, size + 1);
+        List<User> users = sortStrategy == UserSortStrategy.MOST_FOLLOWED
+                ? userRepository.findPageByFollowerCount(position.followerCount(), position.id(), page)
+                : userRepository.findPageAfterId(position.id(), page);
+
+        if (users.size() <= size) {
+            return ResponseEntity.ok(users);
+        }
+        users = users.subList(0, size);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, UserCursor.after(sortStrategy, users.get(size - 1)).encode())
+                .body(users);
+    }
+
+    /**
+     * Get the page of ranked users starting at {@code offset}. The cursor for the following
+     * page holds its offset, so a page can skip or repeat users if the ranking changes in between.
+     *
+     * @param total The number of users in the whole ranking.
+     */
+    private ResponseEntity<List<User>> getRankedPage(UserSortStrategy sortStrategy, List<User> users,
+                                                     int offset, int size, long total) {
+        List<User> page = users.subList(Math.min(offset, users.size()), (int) Math.min((long) offset + size, users.size()));
+        if (total <= (long) offset + size) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, UserCursor.atOffset(sortStrategy, offset + size).encode())
+                .body(page);
+    }
+
+    /**
+     * Look up SIMILARITY candidates in the LSH index and re-rank only those exactly.
+     * The base user is not part of the result.
+     */
+    private ResponseEntity<List<User>> getApproximatelySimilarUsers(Long baseUserId, Integer limit) {
+        if (baseUserId == null) {
+            return ResponseEntity.badRequest().body(null);
+        }
+        Optional<User> baseUser = userRepository.findById(baseUserId);
+        if (baseUser.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        List<Long> candidateIds = analytics.similarCandidates(baseUserId, baseUser.get().getReviewedProductIds(),
+                limit != null ? limit : DEFAULT_SIMILAR_USERS);
+        List<User> candidates = new ArrayList<>();
+        userRepository.findAllById(candidateIds).forEach(candidates::add);
+        sortBySimilarity(candidates, baseUser.get(), SimilarityMode.APPROXIMATE);
+        return ResponseEntity.ok(candidates);
+    }
+
+    /**
+     * Order users by the latest trust ranking. Users who weren't in the follow graph
+     * when it was computed come last, by ID. When the page ends within the ranking,
+     * only the users ranked up to its end are loaded.
+     */
+    private ResponseEntity<List<User>> getMostTrustedUsers(int offset, int size) {
+        TrustRanking ranking = analytics.trustRanking();
+        long end = (long) offset + size;
+        List<User> users;
+        long total;
+        if (ranking.userCount() >= end) {
+            users = new ArrayList<>(userRepository.findAllById(Arrays.stream(ranking.top((int) end)).boxed().toList()));
+            total = userRepository.count();
+        } else {
+            users = new ArrayList<>(userRepository.findAll());
+            total = users.size();
+        }
+        users.sort(Comparator.comparingDouble((User u) -> ranking.score(u.getId())).reversed()
+                .thenComparing(User::getId));
+        return getRankedPage(UserSortStrategy.MOST_TRUSTED, users, offset, size, total);
+    }
+
+    /**
+     * Get when the trust ranking behind MOST_TRUSTED was last computed, how long it took
+     * and how close the PageRank iteration got to converging.
+     */
+    @GetMapping("/trust/stats")
+    public ResponseEntity<Map<String, Object>> getTrustStats() {
+        TrustRanking ranking = analytics.trustRanking();
+        Map<String, Object> response = new HashMap<>();
+        response.put("users", ranking.userCount());
+        response.put("edges", ranking.getEdgeCount());
+        response.put("computedAt", ranking.getComputedAt().toString());
+        response.put("durationMillis", ranking.getDurationNanos() / 1_000_000.0);
+        response.put("iterations", ranking.getIterations());
+        response.put("residual", ranking.getResidual());
+        response.put("converged", ranking.isConverged());
+        return ResponseEntity.ok(response);
+    }
+
+    // The engine ranks the fingerprints, ties keep the order they were loaded in.
+    private void sortBySimilarity(List<User> users, User baseUser, SimilarityMode mode) {
+        Metrics.summary(USERS_SCORED, "mode", mode.name()).record(users.size());
+        long[][] fingerprints = new long[users.size()][];
+        for (int i = 0; i < fingerprints.length; i++) {
+            fingerprints[i] = users.get(i).getReviewedProductIds();
+        }
+        int[] order = analytics.rankBySimilarity(baseUser.getReviewedProductIds(), fingerprints);
+        User[] ranked = new User[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ranked[i] = users.get(order[i]);
+        }
+        for (int i = 0; i < ranked.length; i++) {
+            users.set(i, ranked[i]);
+        }
+    }
+
+    /**
+     * Get a user, or 304 Not Modified if the client's ETag still matches their version.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<User> getUserById(@PathVariable Long id, WebRequest request) {
+        Optional<Long> version = userRepository.findVersionById(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(ETags.of("user", id, version.get()))) {
+            return null; // 304 Not Modified
+        }
+        return getUserById(id);
+    }
+
+    public ResponseEntity<User> getUserById(Long id) {
+        return userRepository.findById(id).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public ResponseEntity<User> createUser(@RequestBody Map<String, String> body) {
+        String username = body.get("username");
+        if (username == null || username.isBlank() || userRepository.findByUsername(username).isPresent()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            User user = new User(username);
+            return ResponseEntity.status(HttpStatus.CREATED).body(userRepository.save(user));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    /**
+     * Get the exact {@code k} users most similar to this user, most similar first.
+     * Only users who reviewed one of the same products are scored, and users
+     * with nothing in common are left out.
+     */
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarUser>> getSimilarUsers(@PathVariable Long id,
+                                                             @RequestParam(required = false, defaultValue = "20") int k) {
+        if (k <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!userRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        List<CoReviewIndex.Match> matches = analytics.topSimilar(id, Math.min(k, MAX_PAGE_SIZE));
+        if (matches.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        Map<Long, String> usernames = new HashMap<>();
+        for (UserSummary user : userRepository.findSummariesByIdIn(matches.stream().map(CoReviewIndex.Match::userId).toList())) {
+            usernames.put(user.id(), user.username());
+        }
+        List<SimilarUser> similar = new ArrayList<>(matches.size());
+        for (CoReviewIndex.Match match : matches) {
+            String username = usernames.get(match.userId());
+            if (username != null) similar.add(new SimilarUser(match.userId(), username, match.similarity()));
+        }
+        return ResponseEntity.ok(similar);
+    }
+
+    /**
+     * Get one page of the users following this user, ordered by ID.
+     * Pass the last ID of a page as {@code afterId} to get the next one.
+     */
+    @GetMapping("/{id}/followers")
+    public ResponseEntity<List<UserSummary>> getFollowers(@PathVariable Long id,
+                                                          @RequestParam(required = false, defaultValue = "0") long afterId,
+                                                          @RequestParam(required = false, defaultValue = "50") int limit) {
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!userRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        Pageable page = PageRequest.of(0, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(userRepository.findFollowerSummaries(id, afterId, page));
+    }
+
+    /**
+     * Get one page of the users this user follows, ordered by ID.
+     * Pass the last ID of a page as {@code afterId} to get the next one.
+     */
+    @GetMapping("/{id}/following")
+    public ResponseEntity<List<UserSummary>> getFollowing(@PathVariable Long id,
+                                                          @RequestParam(required = false, defaultValue = "0") long afterId,
+                                                          @RequestParam(required = false, defaultValue = "50") int limit) {
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!userRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        Pageable page = PageRequest.of(0, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(userRepository.findFollowingSummaries(id, afterId, page));
+    }
+
+    /**
+     * Write a review. The product's row and then the author's are locked until commit, so
+     * concurrent reviews update the rating aggregates and the fingerprint one at a time.
+     */
+    @PostMapping("/{userId}/review")
+    @Transactional
+    public ResponseEntity<Map<String, Object>> createReview(@PathVariable Long userId, @RequestBody Map<String, Object> body) {
+        Long productId = Long.valueOf(body.get("productId").toString());
+        Optional<Product> optionalProduct = productRepository.findByIdForUpdate(productId);
+        if (optionalProduct.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<User> optionalUser = userRepository.findByIdForUpdate(userId);
+        if (optionalUser.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        User user = optionalUser.get();
+        Product product = optionalProduct.get();
+        String text = (String) body.get("text");
+        Integer rating = (Integer) body.get("rating");
+        if (text == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Review review = new Review(user, rating, text, product);
+        user.addReview(review);
+        product.addReview(review);
+        reviewRepository.save(review); // persisted now rather than on flush, so the event carries its ID
+        userRepository.save(user);
+        productRepository.save(product);
+        eventPublisher.publishEvent(new ReviewCreatedEvent(review.getId(), user.getId(), product.getId(),
+                product.getCategory(), review.getRating(), review.getText(), user.getReviewedProductIds()));
+        Map<String, Object> response = new HashMap<>();
+        response.put("rating", review.getRating());
+        response.put("text", review.getText());
+        response.put("productId", review.getProduct().getId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PostMapping("/{id}/follow/{targetId}")
+    public ResponseEntity<String> followUser(@PathVariable Long id, @PathVariable Long targetId) {
+        if (id.equals(targetId)) {
+            return ResponseEntity.badRequest().body("User cannot follow themselves");
+        }
+        Map<Long, String> usernames = usernames(id, targetId);
+        if (usernames.size() < 2) {
+            return ResponseEntity.notFound().build();
+        }
+        boolean followed;
+        try {
+            followed = followService.follow(id, targetId);
+        } catch (DataIntegrityViolationException e) {
+            followed = false; // the same follow was inserted concurrently
+        }
+        return ResponseEntity.ok(usernames.get(id) + (followed ? " is now following " : " is already following ")
+                + usernames.get(targetId));
+    }
+
+    @PostMapping("/{id}/unfollow/{targetId}")
+    public ResponseEntity<String> unfollowUser(@PathVariable Long id, @PathVariable Long targetId) {
+        if (id.equals(targetId)) {
+            return ResponseEntity.badRequest().body("User cannot unfollow themselves");
+        }
+        Map<Long, String> usernames = usernames(id, targetId);
+        if (usernames.size() < 2) {
+            return ResponseEntity.notFound().build();
+        }
+        boolean unfollowed = followService.unfollow(id, targetId);
+        return ResponseEntity.ok(usernames.get(id) + (unfollowed ? " has unfollowed " : " isn't following ")
+                + usernames.get(targetId));
+    }
+
+    // Look up both usernames with one query, without loading the users.
+    private Map<Long, String> usernames(Long id, Long otherId) {
+        Map<Long, String> usernames = new HashMap<>();
+        for (UserSummary user : userRepository.findSummariesByIdIn(List.of(id, otherId))) {
+            usernames.put(user.id(), user.username());
+        }
+        return usernames;
+    }
+
+    /**
+     * Get the degree of separation from one user to another in the follow network,
+     * i.e., the fewest follow hops from {@code id} to {@code otherId}.
+     * The degree is -1 if they aren't connected within {@code maxDepth} hops.
+     */
+    @GetMapping("/{id}/separation/{otherId}")
+    public ResponseEntity<Map<String, Object>> getSeparation(@PathVariable Long id, @PathVariable Long otherId,
+                                                             @RequestParam(required = false, defaultValue = "6") int maxDepth) {
+        if (maxDepth < 0 || maxDepth > MAX_SEPARATION_DEPTH) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!userRepository.existsById(id) || !userRepository.existsById(otherId)) {
+            return ResponseEntity.notFound().build();
+        }
+        int degree = analytics.separation(id, otherId, maxDepth);
+        Map<String, Object> response = new HashMap<>();
+        response.put("userId", id);
+        response.put("otherUserId", otherId);
+        response.put("maxDepth", maxDepth);
+        response.put("degree", degree);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{userId}/reviews")
+    public ResponseEntity<Set<Review>> getReviews(@PathVariable Long userId) {
+        Optional<User> optionalUser = userRepository.findById(userId);
+        if (optionalUser.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        User user = optionalUser.get();
+        return ResponseEntity.ok(user.getReviews());
+    }
+
+    /**
+     * Delete one of a user's reviews. The review is found by its ID and author, and the
+     * rating aggregates and fingerprint are updated in place, so neither the user's nor the
+     * product's reviews are loaded. The product and then the user are locked, as in
+     * {@link #createReview}.
+     */
+    @DeleteMapping("/{userId}/review/{reviewId}")
+    @Transactional
+    public ResponseEntity<Map<String, String>> deleteUserReview(@PathVariable Long userId, @PathVariable Long reviewId) {
+        Optional<Review> optionalReview = reviewRepository.findByIdAndAuthorId(reviewId, userId);
+        if (optionalReview.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Review reviewToDelete = optionalReview.get();
+        Long productId = reviewToDelete.getProduct().getId();
+        Optional<Product> optionalProduct = productRepository.findByIdForUpdate(productId);
+        if (optionalProduct.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Product product = optionalProduct.get();
+        User user = userRepository.findByIdForUpdate(userId).orElseThrow();
+        product.removeRating(reviewToDelete.getRating());
+        user.removeReviewedProductId(productId);
+        reviewRepository.delete(reviewToDelete);
+        eventPublisher.publishEvent(new ReviewDeletedEvent(
+                reviewId, user.getId(), productId, product.getCategory(), reviewToDelete.getRating(),
+                user.getReviewedProductIds()));
+        return ResponseEntity.ok(Map.of("message", "Review deleted successfully"));
+    }
+}
@@ -0,0 +1,51 @@
+package org.slayscale;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for paging through {@code /api/users}. It holds the sort key
+ * of the last user on the previous page, so the next page starts right after it
+ * without an OFFSET scan. Strategies ranked in memory have no such key, so their
+ * cursors hold the offset of the next page instead.
+ */
+public record UserCursor(UserSortStrategy sortStrategy, int followerCount, long id, int offset) {
+
+    /**
+     * The position before the first user for the given strategy.
+     */
+    public static UserCursor start(UserSortStrategy sortStrategy) {
+        return new UserCursor(sortStrategy, Integer.MAX_VALUE, 0L, 0);
+    }
+
+    public static UserCursor after(UserSortStrategy sortStrategy, User user) {
+        return new UserCursor(sortStrategy, user.getFollowerCount(), user.getId(), 0);
+    }
+
+    public static UserCursor atOffset(UserSortStrategy sortStrategy, int offset) {
+        return new UserCursor(sortStrategy, Integer.MAX_VALUE, 0L, offset);
+    }
+
+    public String encode() {
+        String raw = sortStrategy.name() + ":" + followerCount + ":" + id + ":" + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException If the cursor is malformed or was issued for another sort strategy.
+     */
+    public static UserCursor decode(String cursor, UserSortStrategy expected) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 4 || !parts[0].equals(expected.name())) {
+                throw new IllegalArgumentException("Cursor does not match sort strategy " + expected);
+            }
+            int offset = Integer.parseInt(parts[3]);
+            if (offset < 0) throw new IllegalArgumentException("Negative offset.");
+            return new UserCursor(expected, Integer.parseInt(parts[1]), Long.parseLong(parts[2]), offset);
+        } catch (IllegalArgumentException e) { // also covers NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package org.slayscale;
+
+/**
+ * Published by {@link FollowService} after {@code followerId} started following {@code followingId}.
+ */
+public record UserFollowedEvent(Long followerId, Long followingId) {
+}
@@ -0,0 +1,104 @@
+package org.slayscale;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface UserRepository extends JpaRepository<User, Long> {
+    Optional<User> findByUsername(String username);
+
+    /**
+     * Load a user and lock their row until the transaction ends, so that concurrent
+     * reviews by the same user update the product fingerprint one after the other.
+     * Lock the product first, as every review write does, so they can't deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id in :ids")
+    List<User> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    List<User> findAllByOrderByFollowerCountDescIdAsc();
+
+    // Keyset pages: pass PageRequest.of(0, size) so only a LIMIT is applied, never an OFFSET.
+    @Query("select u from User u where u.id > :afterId order by u.id")
+    List<User> findPageAfterId(@Param("afterId") long afterId, Pageable page);
+
+    @Query("select u from User u " +
+            "where u.followerCount < :followerCount or (u.followerCount = :followerCount and u.id > :afterId) " +
+            "order by u.followerCount desc, u.id asc")
+    List<User> findPageByFollowerCount(@Param("followerCount") int followerCount,
+                                       @Param("afterId") long afterId,
+                                       Pageable page);
+
+    // Followers and followings as (id, username) keyset pages, read from the user_following join.
+    @Query("select new org.slayscale.UserSummary(f.id, f.username) from User f join f.following t " +
+            "where t.id = :id and f.id > :afterId order by f.id")
+    List<UserSummary> findFollowerSummaries(@Param("id") Long id, @Param("afterId") long afterId, Pageable page);
+
+    @Query("select new org.slayscale.UserSummary(f.id, f.username) from User f join f.followers s " +
+            "where s.id = :id and f.id > :afterId order by f.id")
+    List<UserSummary> findFollowingSummaries(@Param("id") Long id, @Param("afterId") long afterId, Pageable page);
+
+    // Each row is {follower_id, following_id}.
+    @Query(value = "select follower_id, following_id from user_following", nativeQuery = true)
+    List<Object[]> findAllFollowEdges();
+
+    // Each row is {id, reviewedProductIds}.
+    @Query("select u.id, u.reviewedProductIds from User u")
+    List<Object[]> findAllFingerprints();
+
+    // Each row is {id, reviewedProductIds}.
+    @Query("select u.id, u.reviewedProductIds from User u where u.id in :ids")
+    List<Object[]> findFingerprintsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new org.slayscale.UserSummary(u.id, u.username) from User u where u.id in :ids")
+    List<UserSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Follows are written straight to the join table so the follow collections are never loaded.
+    // Both return the number of edges changed, 0 if the follow already existed or didn't exist.
+    @Modifying
+    @Query(value = "insert into user_following (follower_id, following_id) select :followerId, :targetId " +
+            "where not exists (select 1 from user_following where follower_id = :followerId and following_id = :targetId)",
+            nativeQuery = true)
+    int insertFollow(@Param("followerId") long followerId, @Param("targetId") long targetId);
+
+    @Modifying
+    @Query(value = "delete from user_following where follower_id = :followerId and following_id = :targetId",
+            nativeQuery = true)
+    int deleteFollow(@Param("followerId") long followerId, @Param("targetId") long targetId);
+
+    // Both counters in one statement, so concurrent follows in opposite directions lock the rows in the same order.
+    @Modifying
+    @Query("update User u set " +
+            "u.followerCount = u.followerCount + case when u.id = :targetId then :delta else 0 end, " +
+            "u.followingCount = u.followingCount + case when u.id = :followerId then :delta else 0 end, " +
+            "u.version = u.version + 1 " +
+            "where u.id in (:followerId, :targetId)")
+    int adjustFollowCounts(@Param("followerId") long followerId, @Param("targetId") long targetId, @Param("delta") int delta);
+
+    // The version of a user, to answer conditional GETs without loading them.
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /** Stream every user read-only, for exports. Must be consumed inside a transaction. */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + ExportController.FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAllForExport();
+}
@@ -3,5 +3,6 @@ package org.slayscale;
 public enum UserSortStrategy {
     DEFAULT,
     SIMILARITY,
-    MOST_FOLLOWED
+    MOST_FOLLOWED,
+    MOST_TRUSTED
 }
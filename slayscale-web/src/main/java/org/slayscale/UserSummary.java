@@ -0,0 +1,7 @@
+package org.slayscale;
+
+/**
+ * The public identity of a user, read straight from the database without loading the entity.
+ */
+public record UserSummary(Long id, String username) {
+}
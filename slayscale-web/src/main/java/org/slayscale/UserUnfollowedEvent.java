@@ -0,0 +1,7 @@
+package org.slayscale;
+
+/**
+ * Published by {@link FollowService} after {@code followerId} stopped following {@code followingId}.
+ */
+public record UserUnfollowedEvent(Long followerId, Long followingId) {
+}
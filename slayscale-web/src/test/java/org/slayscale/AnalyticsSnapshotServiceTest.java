@@ -0,0 +1,123 @@
+package org.slayscale;
+
+import org.junit.jupiter.api.Test;
+import org.slayscale.analytics.AnalyticsEngine;
+import org.slayscale.analytics.CoReviewIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AnalyticsSnapshotServiceTest {
+
+    @DynamicPropertySource
+    static void snapshotPath(DynamicPropertyRegistry registry) throws IOException {
+        Path snapshot = Files.createTempDirectory("analytics-snapshot").resolve("analytics.snapshot");
+        registry.add("slayscale.snapshot.path", snapshot::toString);
+    }
+
+    @Autowired
+    private AnalyticsSnapshotService snapshotService;
+
+    @Autowired
+    private AnalyticsEngine analytics;
+
+    @Autowired
+    private AnalyticsChangeRepository changeRepository;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private void review(User author, Product product) {
+        userController.createReview(author.getId(), Map.of("productId", product.getId(), "rating", 4, "text", "Fine"));
+    }
+
+    @Test
+    void restartReplaysOnlyChangesAfterTheSnapshot() {
+        User alice = userRepository.save(new User("alice"));
+        User bob = userRepository.save(new User("bob"));
+        User carol = userRepository.save(new User("carol"));
+        Product book = productRepository.save(new Product(Category.BOOKS, "https://example.com/snapshot-book"));
+        Product phone = productRepository.save(new Product(Category.ELECTRONICS, "https://example.com/snapshot-phone"));
+
+        userController.followUser(alice.getId(), bob.getId());
+        review(alice, book);
+        review(alice, phone);
+        snapshotService.write();
+
+        userController.followUser(carol.getId(), alice.getId());
+        userController.unfollowUser(alice.getId(), bob.getId());
+        review(bob, book);
+        // The snapshot holds the first three changes, so of those only the newest is kept.
+        assertEquals(4, changeRepository.count());
+        // Not recorded as a change, so only a full reload from the table would see it.
+        transactionTemplate.executeWithoutResult(status -> userRepository.insertFollow(bob.getId(), carol.getId()));
+
+        // Start over from an empty engine, as after a restart.
+        analytics.loadFollowGraph(new long[0], new long[0], 0);
+        analytics.loadFingerprints(new long[0], new long[0][]);
+        snapshotService.load();
+
+        assertTrue(analytics.isFollowing(carol.getId(), alice.getId()));
+        assertFalse(analytics.isFollowing(alice.getId(), bob.getId()));
+        assertFalse(analytics.isFollowing(bob.getId(), carol.getId()));
+        assertEquals(List.of(new CoReviewIndex.Match(bob.getId(), 0.5)), analytics.topSimilar(alice.getId(), 5));
+    }
+
+    @Test
+    void changeCommittedAfterTheSnapshotWithALowerIdIsReplayed() throws Exception {
+        User dan = userRepository.save(new User("dan"));
+        User erin = userRepository.save(new User("erin"));
+        User fay = userRepository.save(new User("fay"));
+        User gus = userRepository.save(new User("gus"));
+
+        // Dan's follow gets its change ID first but commits only after the snapshot is written.
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        Thread late = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            userController.followUser(dan.getId(), erin.getId());
+            recorded.countDown();
+            try {
+                written.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        late.start();
+        assertTrue(recorded.await(10, TimeUnit.SECONDS));
+        userController.followUser(fay.getId(), gus.getId());
+        snapshotService.write();
+        written.countDown();
+        late.join();
+        userController.followUser(gus.getId(), fay.getId());
+
+        analytics.loadFollowGraph(new long[0], new long[0], 0);
+        analytics.loadFingerprints(new long[0], new long[0][]);
+        snapshotService.load();
+
+        assertTrue(analytics.isFollowing(dan.getId(), erin.getId()));
+        assertTrue(analytics.isFollowing(fay.getId(), gus.getId()));
+        assertTrue(analytics.isFollowing(gus.getId(), fay.getId()));
+    }
+}
@@ -0,0 +1,75 @@
+package org.slayscale;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedCacheTest {
+    private long now;
+    private AtomicInteger loads;
+    private BoundedCache<Integer, String> cache;
+
+    @BeforeEach
+    public void setUp() {
+        now = 0;
+        loads = new AtomicInteger();
+        cache = new BoundedCache<>(2, 100, () -> now);
+    }
+
+    private String load(Integer key) {
+        loads.incrementAndGet();
+        return key < 0 ? null : "value-" + key;
+    }
+
+    @Test
+    void hitsAndMisses() {
+        assertEquals("value-1", cache.get(1, this::load));
+        assertEquals("value-1", cache.get(1, this::load));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+
+        // null values aren't cached
+        assertNull(cache.get(-1, this::load));
+        assertNull(cache.get(-1, this::load));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void leastRecentlyUsedIsEvicted() {
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.get(1, this::load); // 2 is now the least recently used
+        cache.get(3, this::load);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+        assertNotNull(cache.peek(1));
+        assertNull(cache.peek(2));
+    }
+
+    @Test
+    void entriesExpire() {
+        cache.get(1, this::load);
+        now = 99;
+        cache.get(1, this::load);
+        assertEquals(1, loads.get());
+        now = 100;
+        assertNull(cache.peek(1));
+        cache.get(1, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate() {
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.invalidate(1);
+        assertNull(cache.peek(1));
+        cache.invalidateIf(key -> key == 2);
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(0, 1));
+    }
+}
@@ -0,0 +1,102 @@
+package org.slayscale;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private Product book;
+
+    @BeforeEach
+    void setUp() {
+        book = productRepository.save(new Product(Category.BOOKS, "https://example.com/book"));
+        // More rows than one fetch, so the persistence context is cleared mid-stream.
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < ExportController.FETCH_SIZE + 10; i++) {
+            User user = new User("user" + i);
+            user.addReview(new Review(user, i % 6, "review " + i, book));
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+    }
+
+    @AfterEach
+    void clean() {
+        reviewRepository.deleteAll();
+        userRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    private List<JsonNode> export(String path) throws Exception {
+        MvcResult started = mockMvc.perform(get(path)).andExpect(request().asyncStarted()).andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ReviewController.NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            rows.add(objectMapper.readTree(line));
+        }
+        return rows;
+    }
+
+    @Test
+    void exportUsers() throws Exception {
+        List<JsonNode> rows = export("/api/export/users");
+        assertEquals(ExportController.FETCH_SIZE + 10, rows.size());
+        assertEquals("user0", rows.get(0).get("username").asText());
+        assertEquals("user" + (ExportController.FETCH_SIZE + 9), rows.get(rows.size() - 1).get("username").asText());
+    }
+
+    @Test
+    void exportProducts() throws Exception {
+        List<JsonNode> rows = export("/api/export/products");
+        assertEquals(1, rows.size());
+        assertEquals(book.getId(), rows.get(0).get("id").asLong());
+        assertEquals("https://example.com/book", rows.get(0).get("url").asText());
+    }
+
+    @Test
+    void exportReviews() throws Exception {
+        List<JsonNode> rows = export("/api/export/reviews");
+        assertEquals(ExportController.FETCH_SIZE + 10, rows.size());
+        JsonNode first = rows.get(0);
+        assertEquals(userRepository.findByUsername("user0").orElseThrow().getId(), first.get("userId").asLong());
+        assertEquals(book.getId(), first.get("productId").asLong());
+        assertEquals(0, first.get("rating").asInt());
+        assertEquals("review 0", first.get("text").asText());
+    }
+}
@@ -0,0 +1,128 @@
+package org.slayscale;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "slayscale.feed.celebrity-threshold=2")
+@AutoConfigureMockMvc
+class FeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private User alice;
+    private User bob;
+    private User charlie;
+    private User don;
+    private Product book;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        alice = userRepository.save(new User("Alice"));
+        bob = userRepository.save(new User("Bob"));
+        charlie = userRepository.save(new User("Charlie"));
+        don = userRepository.save(new User("Don"));
+        book = productRepository.save(new Product(Category.BOOKS, "https://example.com/book"));
+
+        // Bob is followed by Alice only, so his reviews are pushed.
+        // Charlie is followed by Alice and Don, which makes him a pull-mode author.
+        follow(alice, bob);
+        follow(alice, charlie);
+        follow(don, charlie);
+    }
+
+    @AfterEach
+    void clean() {
+        reviewRepository.deleteAll();
+        userRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    private void follow(User follower, User target) throws Exception {
+        mockMvc.perform(post("/api/users/" + follower.getId() + "/follow/" + target.getId())).andExpect(status().isOk());
+    }
+
+    private void review(User author, String text) throws Exception {
+        mockMvc.perform(post("/api/users/" + author.getId() + "/review")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\": " + book.getId() + ", \"rating\": 4, \"text\": \"" + text + "\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void feedMergesPushedAndPulledReviews() throws Exception {
+        review(bob, "bob 1");
+        review(charlie, "charlie 1");
+        review(bob, "bob 2");
+        review(don, "nobody follows don");
+        review(charlie, "charlie 2");
+
+        mockMvc.perform(get("/api/users/" + alice.getId() + "/feed"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(UserController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[*].text", contains("charlie 2", "bob 2", "charlie 1", "bob 1")))
+                .andExpect(jsonPath("$[1].authorUsername", is("Bob")));
+
+        mockMvc.perform(get("/api/users/" + don.getId() + "/feed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].text", contains("charlie 2", "charlie 1")));
+
+        mockMvc.perform(get("/api/users/" + bob.getId() + "/feed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void feedPages() throws Exception {
+        review(bob, "bob 1");
+        review(charlie, "charlie 1");
+        review(bob, "bob 2");
+
+        String before = mockMvc.perform(get("/api/users/" + alice.getId() + "/feed").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].text", contains("bob 2", "charlie 1")))
+                .andReturn().getResponse().getHeader(UserController.NEXT_CURSOR_HEADER);
+
+        mockMvc.perform(get("/api/users/" + alice.getId() + "/feed").param("limit", "2").param("before", before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].text", contains("bob 1")));
+    }
+
+    @Test
+    void deletedReviewsLeaveTheFeed() throws Exception {
+        review(bob, "bob 1");
+        review(bob, "bob 2");
+        Long reviewId = reviewRepository.findAll().stream()
+                .filter(r -> r.getText().equals("bob 2")).findFirst().orElseThrow().getId();
+
+        mockMvc.perform(delete("/api/users/" + bob.getId() + "/review/" + reviewId)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/" + alice.getId() + "/feed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].text", contains("bob 1")));
+    }
+
+    @Test
+    void invalidRequests() throws Exception {
+        mockMvc.perform(get("/api/users/" + alice.getId() + "/feed").param("limit", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/999999/feed")).andExpect(status().isNotFound());
+    }
+}
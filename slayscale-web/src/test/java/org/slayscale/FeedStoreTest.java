@@ -0,0 +1,107 @@
+package org.slayscale;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedStoreTest {
+    private static final long[] NO_FOLLOWERS = {};
+
+    private FeedStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new FeedStore(4, 3);
+    }
+
+    @Test
+    void pushedReviewsAreNewestFirst() {
+        store.publish(1, 10, new long[]{2, 3});
+        store.publish(4, 11, new long[]{2});
+        store.publish(1, 12, new long[]{2, 3});
+
+        assertArrayEquals(new long[]{12, 11, 10}, store.page(2, Long.MAX_VALUE, 10, author -> false));
+        assertArrayEquals(new long[]{12, 10}, store.page(3, Long.MAX_VALUE, 10, author -> false));
+        assertArrayEquals(new long[]{12}, store.page(2, Long.MAX_VALUE, 1, author -> false));
+        assertArrayEquals(new long[]{11, 10}, store.page(2, 12, 10, author -> false));
+        assertArrayEquals(new long[0], store.page(5, Long.MAX_VALUE, 10, author -> false));
+    }
+
+    @Test
+    void inboxesAreBounded() {
+        for (long review = 1; review <= 6; review++) {
+            store.publish(1, review, new long[]{2});
+        }
+        assertArrayEquals(new long[]{6, 5, 4, 3}, store.page(2, Long.MAX_VALUE, 10, author -> false));
+    }
+
+    @Test
+    void popularAuthorsArePulled() {
+        store.publish(1, 10, new long[]{2});           // pushed to 2
+        store.publish(1, 11, new long[]{2, 3, 4});     // 1 now has 3 followers and switches to pull
+        store.publish(1, 12, new long[]{2, 3, 4});
+        store.publish(5, 13, new long[]{2});
+
+        assertTrue(store.isCelebrity(1));
+        // 10 is both in 2's inbox and in 1's outbox, but only listed once
+        assertArrayEquals(new long[]{13, 12, 11, 10}, store.page(2, Long.MAX_VALUE, 10, author -> author == 1));
+        assertArrayEquals(new long[]{12, 11, 10}, store.page(3, Long.MAX_VALUE, 10, author -> author == 1));
+        assertArrayEquals(new long[0], store.page(3, Long.MAX_VALUE, 10, author -> false)); // unfollowed since
+        assertArrayEquals(new long[]{11}, store.page(3, 12, 1, author -> author == 1));
+    }
+
+    @Test
+    void retractedReviewsLeaveFeeds() {
+        store.publish(1, 10, new long[]{2});
+        store.publish(1, 11, new long[]{2});
+        store.publish(1, 12, new long[]{2});
+        store.retract(1, 11, new long[]{2});
+        store.retract(1, 99, new long[]{2});
+        assertArrayEquals(new long[]{12, 10}, store.page(2, Long.MAX_VALUE, 10, author -> false));
+
+        store.publish(6, 20, new long[]{7, 8, 9});
+        store.retract(6, 20, NO_FOLLOWERS);
+        assertArrayEquals(new long[0], store.page(7, Long.MAX_VALUE, 10, author -> author == 6));
+    }
+
+    @Test
+    void reviewsCommittedOutOfOrderStaySorted() {
+        store.publish(1, 12, new long[]{2});
+        store.publish(1, 10, new long[]{2});
+        store.publish(1, 13, new long[]{2});
+        store.publish(1, 11, new long[]{2});
+        store.publish(1, 11, new long[]{2});
+        assertArrayEquals(new long[]{13, 12, 11, 10}, store.page(2, Long.MAX_VALUE, 10, author -> false));
+        assertArrayEquals(new long[]{11, 10}, store.page(2, 12, 10, author -> false));
+
+        // full: a lower ID than everything kept is dropped, a higher one evicts the lowest
+        store.publish(1, 9, new long[]{2});
+        assertArrayEquals(new long[]{13, 12, 11, 10}, store.page(2, Long.MAX_VALUE, 10, author -> false));
+        store.publish(1, 15, new long[]{2});
+        store.publish(1, 14, new long[]{2});
+        assertArrayEquals(new long[]{15, 14, 13, 12}, store.page(2, Long.MAX_VALUE, 10, author -> false));
+
+        store.retract(1, 14, new long[]{2});
+        assertArrayEquals(new long[]{15, 13, 12}, store.page(2, Long.MAX_VALUE, 10, author -> false));
+    }
+
+    @Test
+    void readsOnlyMergeFollowedCelebrities() {
+        store.publish(1, 10, new long[]{2, 3, 4});
+        store.publish(5, 11, new long[]{6, 7, 8});
+        List<Long> asked = new ArrayList<>();
+        assertArrayEquals(new long[]{10}, store.page(2, Long.MAX_VALUE, 10, author -> asked.add(author)));
+        assertEquals(List.of(1L), asked);
+
+        store.follow(2, 5);
+        assertArrayEquals(new long[]{11, 10}, store.page(2, Long.MAX_VALUE, 10, author -> true));
+        store.unfollow(2, 1);
+        assertArrayEquals(new long[]{11}, store.page(2, Long.MAX_VALUE, 10, author -> true));
+        store.follow(2, 9); // not a celebrity, so their reviews are pushed
+        assertArrayEquals(new long[]{11}, store.page(2, Long.MAX_VALUE, 10, author -> true));
+    }
+}
@@ -0,0 +1,87 @@
+package org.slayscale;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slayscale.analytics.AnalyticsEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class FollowConcurrencyTest {
+    private static final int FOLLOWERS = 2000;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private UserController userController;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AnalyticsEngine analytics;
+
+    @AfterEach
+    void clean() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void parallelFollowsOfOneTarget() throws Exception {
+        User celebrity = userRepository.save(new User("celebrity"));
+        List<User> fans = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            fans.add(new User("fan" + i));
+        }
+        fans = userRepository.saveAll(fans);
+
+        // Every fan follows twice, so duplicates race with each other as well as with other fans.
+        List<Future<?>> results = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < 2; round++) {
+                for (User fan : fans) {
+                    results.add(pool.submit(() -> userController.followUser(fan.getId(), celebrity.getId())));
+                }
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(FOLLOWERS, userRepository.findById(celebrity.getId()).orElseThrow().getFollowerCount());
+        assertEquals(FOLLOWERS, userRepository.findAllFollowEdges().size());
+        for (User fan : userRepository.findAllById(fans.stream().map(User::getId).toList())) {
+            assertEquals(1, fan.getFollowingCount());
+        }
+        assertEquals(FOLLOWERS, analytics.followersOf(celebrity.getId()).length);
+
+        // And unfollow in parallel, half of them twice.
+        results.clear();
+        pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < FOLLOWERS + FOLLOWERS / 2; i++) {
+                User fan = fans.get(i % FOLLOWERS);
+                results.add(pool.submit(() -> userController.unfollowUser(fan.getId(), celebrity.getId())));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(0, userRepository.findById(celebrity.getId()).orElseThrow().getFollowerCount());
+        assertEquals(0, userRepository.findAllFollowEdges().size());
+        assertEquals(0, analytics.followersOf(celebrity.getId()).length);
+    }
+}
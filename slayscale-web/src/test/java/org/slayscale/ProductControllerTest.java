@@ -0,0 +1,418 @@
+package org.slayscale;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ProductControllerAssertTests {
+
+    @Autowired
+    ProductRepository repo;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ReviewRepository reviewRepository;
+
+    private ProductController controller;
+    private ProductCache cache;
+    private CategoryFacets facets;
+    private ProductLeaderboardService leaderboards;
+    private final List<Object> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductCache(100, Duration.ofMinutes(5));
+        facets = new CategoryFacets(repo);
+        leaderboards = new ProductLeaderboardService(repo, 3.0, 2);
+        controller = new ProductController(repo, reviewRepository, userRepository, cache, facets, leaderboards,
+                this::publish);
+    }
+
+    // Stands in for the after-commit listeners, as these tests run in one transaction.
+    private void publish(Object event) {
+        events.add(event);
+        if (event instanceof ProductDeletedEvent deleted) {
+            cache.onProductDeleted(deleted);
+            facets.onProductDeleted(deleted);
+        }
+    }
+
+    @AfterEach
+    void clean() { repo.deleteAll(); }
+
+    private ProductController controller() {
+        return new ProductController(repo, reviewRepository, userRepository,
+                new ProductCache(100, Duration.ofMinutes(5)), new CategoryFacets(repo),
+                new ProductLeaderboardService(repo, 3.0, 2), events::add);
+    }
+
+    private Product createProduct(ProductController controller, String url, String category) {
+        ResponseEntity<Product> res = controller.createProduct(Map.of("url", url, "category", category));
+        assertEquals(HttpStatus.CREATED, res.getStatusCode());
+        assertNotNull(res.getBody());
+        return res.getBody();
+    }
+
+    @Test
+    void createExistingProduct() {
+        ResponseEntity<Product> firstResponse = controller.createProduct(
+                Map.of("url", "https://duplicate.com", "category", "ELECTRONICS")
+        );
+        assertEquals(HttpStatus.CREATED, firstResponse.getStatusCode());
+        assertNotNull(firstResponse.getBody());
+
+        ResponseEntity<?> secondResponse = controller.createProduct(
+                Map.of("url", "https://duplicate.com", "category", "ELECTRONICS")
+        );
+
+        assertEquals(HttpStatus.CONFLICT, secondResponse.getStatusCode());
+    }
+
+    @Test
+    void createProductAndGetProductById() {
+        var created = createProduct(controller, "https://p1.com", "ELECTRONICS");
+
+        var fetched = controller.getProduct(created.getId());
+        assertEquals("https://p1.com", fetched.getUrl());
+        assertEquals(Category.ELECTRONICS, fetched.getCategory());
+    }
+
+    @Test
+    void listProductsReturnsAllAndFiltersByCategory() {
+        createProduct(controller, "https://a.com", "BOOKS");
+        createProduct(controller, "https://b.com", "ELECTRONICS");
+
+        assertEquals(2, controller.listProducts(null, null).size());
+        assertEquals(1, controller.listProducts("books", null).size());
+        assertEquals(0, controller.listProducts("toys", null).size());
+    }
+
+    @Test
+    void listProductsSortedByRating() {
+        var ok = createProduct(controller, "https://ok.com", "BOOKS");
+        var great = createProduct(controller, "https://great.com", "BOOKS");
+        var unrated = createProduct(controller, "https://unrated.com", "ELECTRONICS");
+        var alsoGreat = createProduct(controller, "https://alsogreat.com", "ELECTRONICS");
+        ok.recordRating(3);
+        great.recordRating(5);
+        great.recordRating(4);
+        // same average as "great" but more reviews, so it ranks first
+        alsoGreat.recordRating(5);
+        alsoGreat.recordRating(4);
+        alsoGreat.recordRating(5);
+        alsoGreat.recordRating(4);
+        repo.saveAllAndFlush(List.of(ok, great, alsoGreat));
+
+        var ranked = controller.listProducts(null, "rating");
+        assertEquals(List.of(alsoGreat.getId(), great.getId(), ok.getId(), unrated.getId()),
+                ranked.stream().map(Product::getId).toList());
+
+        var books = controller.listProducts("BOOKS", "rating");
+        assertEquals(List.of(great.getId(), ok.getId()), books.stream().map(Product::getId).toList());
+    }
+
+    @Test
+    void listProductsPaged() {
+        var first = createProduct(controller, "https://page1.com", "BOOKS");
+        var second = createProduct(controller, "https://page2.com", "BOOKS");
+        var third = createProduct(controller, "https://page3.com", "BOOKS");
+        createProduct(controller, "https://page4.com", "TOYS");
+        second.recordRating(5);
+        repo.saveAndFlush(second);
+
+        assertEquals(List.of(first.getId(), second.getId()),
+                controller.listProducts("BOOKS", null, 0, 2).stream().map(Product::getId).toList());
+        assertEquals(List.of(third.getId()),
+                controller.listProducts("BOOKS", null, 1, 2).stream().map(Product::getId).toList());
+        assertEquals(List.of(third.getId(), second.getId()),
+                controller.listProducts("BOOKS", "newest", 0, 2).stream().map(Product::getId).toList());
+        assertEquals(second.getId(), controller.listProducts(null, "rating", 0, 1).get(0).getId());
+        assertEquals(4, controller.listProducts(null, null, 0, 1000).size());
+
+        var ex = assertThrows(ResponseStatusException.class, () -> controller.listProducts(null, null, -1, 10));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        assertThrows(ResponseStatusException.class, () -> controller.listProducts(null, null, 0, 0));
+    }
+
+    @Test
+    void facetsCountProductsAndReviews() {
+        var book = createProduct(controller, "https://facet1.com", "BOOKS");
+        createProduct(controller, "https://facet2.com", "BOOKS");
+        createProduct(controller, "https://facet3.com", "TOYS");
+        facets.onReviewCreated(new ReviewCreatedEvent(1L, 1L, book.getId(), Category.BOOKS, 4, "Good", new long[0]));
+        facets.onReviewCreated(new ReviewCreatedEvent(2L, 2L, book.getId(), Category.BOOKS, 2, "Meh", new long[0]));
+        facets.onReviewDeleted(new ReviewDeletedEvent(2L, 2L, book.getId(), Category.BOOKS, 2, new long[0]));
+
+        var counts = controller.getFacets();
+        assertEquals(List.of(Category.values()), List.copyOf(counts.keySet()));
+        assertEquals(new CategoryFacets.Counts(2, 1), counts.get(Category.BOOKS));
+        assertEquals(new CategoryFacets.Counts(1, 0), counts.get(Category.TOYS));
+        assertEquals(new CategoryFacets.Counts(0, 0), counts.get(Category.HOME));
+
+        // a rebuild reads the same counts from the stored aggregates
+        book.recordRating(4);
+        repo.saveAndFlush(book);
+        var rebuilt = new CategoryFacets(repo);
+        rebuilt.load();
+        assertEquals(counts, rebuilt.counts());
+    }
+
+    @Test
+    void topProductsAreWarmedAndKeptUpToDate() {
+        var single = createProduct(controller, "https://top1.com", "BOOKS");
+        var many = createProduct(controller, "https://top2.com", "BOOKS");
+        var toy = createProduct(controller, "https://top3.com", "TOYS");
+        single.recordRating(5);
+        for (int i = 0; i < 6; i++) {
+            many.recordRating(4);
+        }
+        toy.recordRating(2);
+        repo.saveAllAndFlush(List.of(single, many, toy));
+        leaderboards.load();
+
+        var top = controller.getTopProducts(Category.BOOKS, 20);
+        assertEquals(List.of(many.getId(), single.getId()), top.stream().map(ProductLeaderboard.Entry::productId).toList());
+        assertEquals(6, top.get(0).ratingCount());
+        assertEquals(List.of(toy.getId()),
+                controller.getTopProducts(Category.TOYS, 20).stream().map(ProductLeaderboard.Entry::productId).toList());
+        assertEquals(List.of(), controller.getTopProducts(Category.HOME, 20));
+
+        // reviews move products without reading the database
+        for (long review = 1; review <= 4; review++) {
+            leaderboards.onReviewCreated(new ReviewCreatedEvent(review, 1L, single.getId(), Category.BOOKS, 5, "Great",
+                    new long[0]));
+        }
+        assertEquals(single.getId(), controller.getTopProducts(Category.BOOKS, 1).get(0).productId());
+        leaderboards.onReviewDeleted(new ReviewDeletedEvent(9L, 1L, toy.getId(), Category.TOYS, 2, new long[0]));
+        assertEquals(List.of(), controller.getTopProducts(Category.TOYS, 20));
+
+        var ex = assertThrows(ResponseStatusException.class, () -> controller.getTopProducts(Category.BOOKS, 0));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+
+    @Test
+    void cachedLookupsAreInvalidatedOnWrites() {
+        var book = createProduct(controller, "https://cached.com", "BOOKS");
+        assertEquals(book.getId(), controller.getProduct(book.getId()).getId());
+        assertEquals(1, controller.listProducts("BOOKS", null).size());
+        assertEquals(1, controller.listProducts("BOOKS", null).size());
+        assertEquals(1L, cache.stats().get("byCategory").get("hits"));
+
+        // the listing is invalidated by a new product in the same category
+        createProduct(controller, "https://cached2.com", "BOOKS");
+        assertEquals(2, controller.listProducts("BOOKS", null).size());
+        assertEquals(2, controller.listProducts(null, null).size());
+
+        // a duplicate URL is caught from the cache
+        long urlHits = cache.stats().get("idByUrl").get("hits");
+        var duplicate = controller.createProduct(Map.of("url", "https://cached.com", "category", "BOOKS"));
+        assertEquals(HttpStatus.CONFLICT, duplicate.getStatusCode());
+        assertEquals(urlHits + 1, cache.stats().get("idByUrl").get("hits"));
+
+        controller.deleteProduct(book.getId());
+        assertThrows(ResponseStatusException.class, () -> controller.getProduct(book.getId()));
+        assertEquals(1, controller.listProducts("BOOKS", null).size());
+        assertEquals(HttpStatus.CREATED,
+                controller.createProduct(Map.of("url", "https://cached.com", "category", "BOOKS")).getStatusCode());
+    }
+
+    @Test
+    void deleteProductRemovesItem() {
+        var p1 = createProduct(controller, "https://x.com", "BOOKS");
+        createProduct(controller, "https://y.com", "ELECTRONICS");
+
+        controller.deleteProduct(p1.getId());
+        assertEquals(1, controller.listProducts(null, null).size());
+        assertThrows(ResponseStatusException.class, () -> controller.getProduct(p1.getId()));
+    }
+
+    @Test
+    void deleteProductDeletesItsReviews() {
+        var book = repo.findById(createProduct(controller, "https://reviewed.com", "BOOKS").getId()).orElseThrow();
+        var other = repo.findById(createProduct(controller, "https://other.com", "BOOKS").getId()).orElseThrow();
+        User alice = userRepository.save(new User("Alice"));
+        User bob = userRepository.save(new User("Bob"));
+        for (var review : List.of(new Review(alice, 5, "Great", book), new Review(bob, 2, "Meh", book),
+                new Review(alice, 4, "Fine", other))) {
+            reviewRepository.save(review);
+            review.getAuthor().addReviewedProductId(review.getProduct().getId());
+            review.getProduct().recordRating(review.getRating());
+        }
+        repo.flush();
+
+        controller.deleteProduct(book.getId());
+        assertFalse(repo.existsById(book.getId()));
+        assertEquals(1, reviewRepository.count());
+        assertArrayEquals(new long[]{other.getId()}, userRepository.findById(alice.getId()).orElseThrow().getReviewedProductIds());
+        assertArrayEquals(new long[0], userRepository.findById(bob.getId()).orElseThrow().getReviewedProductIds());
+        assertEquals(1, repo.findById(other.getId()).orElseThrow().getRatingCount());
+
+        var deleted = events.stream().filter(ReviewDeletedEvent.class::isInstance)
+                .map(ReviewDeletedEvent.class::cast).toList();
+        assertEquals(2, deleted.size());
+        assertTrue(deleted.stream().allMatch(e -> e.productId().equals(book.getId()) && e.category() == Category.BOOKS));
+        var alicesEvent = deleted.stream().filter(e -> e.authorId().equals(alice.getId())).findFirst().orElseThrow();
+        assertEquals(5, alicesEvent.rating());
+        assertArrayEquals(new long[]{other.getId()}, alicesEvent.authorProductIds());
+        assertEquals(new ProductDeletedEvent(book.getId(), Category.BOOKS, "https://reviewed.com"), events.get(events.size() - 1));
+        assertEquals(new CategoryFacets.Counts(1, 0), facets.counts().get(Category.BOOKS));
+    }
+
+    @Test
+    void getProductMissingProduct() {
+        assertThrows(ResponseStatusException.class, () -> controller.getProduct(9999L));
+    }
+
+    @Test
+    void createProductInvalidCategory() {
+        var res = controller.createProduct(Map.of("url", "https://x.com", "category", "GARDEN"));
+        assertEquals(HttpStatus.BAD_REQUEST, res.getStatusCode());
+    }
+
+    @Test
+    void createProductBlankUrl() {
+        var res = controller.createProduct(Map.of("url", "   ", "category", "ELECTRONICS"));
+        assertEquals(HttpStatus.BAD_REQUEST, res.getStatusCode());
+    }
+
+    @Test
+    void createProductBlankCategory() {
+        var res = controller.createProduct(Map.of("url", "https://x.com", "category", "   "));
+        assertEquals(HttpStatus.BAD_REQUEST, res.getStatusCode());
+    }
+
+    @Test
+    void deleteProductMissingId() {
+        var ex = assertThrows(ResponseStatusException.class,
+                () -> controller.deleteProduct(99999L));
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    @Test
+    void getProductReviewsMissingProduct() {
+        var res = controller.getProductReviews(99999L);
+        assertEquals(HttpStatus.NOT_FOUND, res.getStatusCode());
+    }
+
+    @Transactional
+    @Test
+    void getProductReviewsExistingProductReturnsEmptySetWhenNoReviews() {
+        var p = createProduct(controller, "https://norev.com", "BOOKS");
+
+        var res = controller.getProductReviews(p.getId());
+        assertEquals(HttpStatus.OK, res.getStatusCode());
+        assertNotNull(res.getBody());
+        assertTrue(res.getBody().isEmpty());
+    }
+
+    @Test
+    void getProductDetailWithLatestReviews() {
+        var p = createProduct(controller, "https://detail.com", "BOOKS");
+        User alice = userRepository.save(new User("Alice"));
+        User bob = userRepository.save(new User("Bob"));
+        Review first = reviewRepository.save(new Review(alice, 5, "First", p));
+        Review second = reviewRepository.save(new Review(bob, 3, "Second", p));
+        reviewRepository.save(new Review(alice, 1, "Third", p));
+
+        ProductDetail detail = controller.getProductDetail(p.getId(), 2);
+        assertEquals(p.getId(), detail.id());
+        assertEquals("https://detail.com", detail.url());
+        assertEquals(Category.BOOKS, detail.category());
+        assertEquals(List.of("Third", "Second"), detail.reviews().stream().map(ReviewSummary::text).toList());
+        assertEquals(new ReviewSummary(second.getId(), bob.getId(), "Bob", p.getId(), 3, "Second"),
+                detail.reviews().get(1));
+
+        detail = controller.getProductDetail(p.getId(), 10);
+        assertEquals(3, detail.reviews().size());
+        assertEquals(first.getId(), detail.reviews().get(2).reviewId());
+    }
+
+    @Test
+    void getProductDetailWithoutReviews() {
+        var p = createProduct(controller, "https://detail-norev.com", "HOME");
+        ProductDetail detail = controller.getProductDetail(p.getId(), 10);
+        assertEquals(Category.HOME, detail.category());
+        assertTrue(detail.reviews().isEmpty());
+    }
+
+    @Test
+    void getProductDetailMissingOrInvalid() {
+        var ex = assertThrows(ResponseStatusException.class, () -> controller.getProductDetail(99999L, 10));
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+        var p = createProduct(controller, "https://detail-bad.com", "HOME");
+        ex = assertThrows(ResponseStatusException.class, () -> controller.getProductDetail(p.getId(), 0));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+
+    @Test
+    void getProductIsConditional() {
+        var p = createProduct(controller, "https://etag.com", "BOOKS");
+        var first = new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+        assertEquals(HttpStatus.OK, controller.getProduct(p.getId(), first).getStatusCode());
+        String etag = first.getResponse().getHeader("ETag");
+        assertEquals("\"product-" + p.getId() + "-0\"", etag);
+
+        assertNull(controller.getProduct(p.getId(), conditional(etag)));
+        assertNull(controller.listProducts("books", null, 0, null, conditional(listingETag("BOOKS"))));
+        assertNull(controller.getProductReviews(p.getId(), conditional(reviewsETag(p.getId()))));
+
+        // a review changes the product's version and so every ETag that includes it
+        String listing = listingETag(null);
+        String reviews = reviewsETag(p.getId());
+        Product product = repo.findById(p.getId()).orElseThrow();
+        User author = userRepository.save(new User("Alice"));
+        reviewRepository.save(new Review(author, 4, "Good", product));
+        product.recordRating(4);
+        repo.flush();
+
+        var changed = conditional(etag);
+        assertEquals(HttpStatus.OK, controller.getProduct(p.getId(), changed).getStatusCode());
+        assertEquals("\"product-" + p.getId() + "-1\"", changed.getResponse().getHeader("ETag"));
+        assertNotEquals(listing, listingETag(null));
+        assertNotEquals(reviews, reviewsETag(p.getId()));
+    }
+
+    @Test
+    void getProductConditionalMissingProduct() {
+        var ex = assertThrows(ResponseStatusException.class, () -> controller.getProduct(9999L, conditional("\"x\"")));
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, controller.getProductReviews(9999L, conditional("\"x\"")).getStatusCode());
+    }
+
+    private static ServletWebRequest conditional(String etag) {
+        var request = new MockHttpServletRequest("GET", "/");
+        request.addHeader("If-None-Match", etag);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    private String listingETag(String category) {
+        var request = new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+        controller.listProducts(category, null, 0, null, request);
+        return request.getResponse().getHeader("ETag");
+    }
+
+    private String reviewsETag(Long productId) {
+        var request = new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+        controller.getProductReviews(productId, request);
+        return request.getResponse().getHeader("ETag");
+    }
+}
@@ -0,0 +1,66 @@
+package org.slayscale;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductLeaderboardTest {
+
+    private ProductLeaderboard leaderboard;
+
+    @BeforeEach
+    public void setUp() {
+        leaderboard = new ProductLeaderboard(3.0, 2);
+    }
+
+    private List<Long> ranking(int k) {
+        return leaderboard.top(k).stream().map(ProductLeaderboard.Entry::productId).toList();
+    }
+
+    @Test
+    void oneReviewDoesNotDominate() {
+        leaderboard.addRating(1, 5);
+        for (int i = 0; i < 10; i++) {
+            leaderboard.addRating(2, 4);
+        }
+        leaderboard.addRating(3, 1);
+
+        assertEquals(List.of(2L, 1L, 3L), ranking(10));
+        ProductLeaderboard.Entry single = leaderboard.top(2).get(1);
+        assertEquals(1, single.ratingCount());
+        assertEquals((2 * 3.0 + 5) / 3, single.score(), 1e-9);
+        assertEquals(List.of(2L), ranking(1));
+    }
+
+    @Test
+    void ratingsMoveProductsBothWays() {
+        leaderboard.addRating(1, 4);
+        leaderboard.addRating(2, 3);
+        assertEquals(List.of(1L, 2L), ranking(10));
+
+        leaderboard.addRating(2, 5);
+        leaderboard.addRating(2, 5);
+        assertEquals(List.of(2L, 1L), ranking(10));
+
+        leaderboard.removeRating(2, 5);
+        leaderboard.removeRating(2, 5);
+        assertEquals(List.of(1L, 2L), ranking(10));
+
+        // a product without ratings leaves the leaderboard
+        leaderboard.removeRating(1, 4);
+        assertEquals(List.of(2L), ranking(10));
+        assertEquals(1, leaderboard.size());
+    }
+
+    @Test
+    void tiesGoToMoreRatingsThenOlderProducts() {
+        leaderboard.load(new long[]{3, 2, 1}, new int[]{2, 1, 1}, new long[]{6, 3, 3});
+        assertEquals(List.of(3L, 1L, 2L), ranking(10));
+
+        leaderboard.load(new long[]{4}, new int[]{1}, new long[]{5});
+        assertEquals(List.of(4L), ranking(10));
+    }
+}
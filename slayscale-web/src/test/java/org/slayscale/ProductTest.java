@@ -73,4 +73,32 @@ public class ProductTest {
         assert (product.getReviews().isEmpty());
         assertThrows(IllegalArgumentException.class, () -> product.removeReview(null));
     }
+
+    @Test
+    public void ratingAggregates() {
+        User other = new User("gilfoyle");
+        Review fiveStars = new Review(other, 5, "flawless", product);
+        assertEquals(0.0d, product.getAverageRating());
+
+        product.addReview(review);
+        product.addReview(fiveStars);
+        product.addReview(fiveStars); // duplicate isn't counted twice
+        assertEquals(2, product.getRatingCount());
+        assertEquals(9, product.getRatingSum());
+        assertEquals(4.5d, product.getAverageRating());
+        assertArrayEquals(new int[]{0, 0, 0, 0, 1, 1}, product.getRatingHistogram());
+
+        product.removeReview(review);
+        assertEquals(1, product.getRatingCount());
+        assertEquals(5.0d, product.getAverageRating());
+        assertArrayEquals(new int[]{0, 0, 0, 0, 0, 1}, product.getRatingHistogram());
+
+        product.removeReview(fiveStars);
+        assertEquals(0, product.getRatingCount());
+        assertEquals(0.0d, product.getAverageRating());
+
+        assertThrows(IllegalArgumentException.class, () -> product.removeRating(3));
+        assertThrows(IllegalArgumentException.class, () -> product.recordRating(6));
+        assertThrows(IllegalArgumentException.class, () -> product.recordRating(-1));
+    }
 }
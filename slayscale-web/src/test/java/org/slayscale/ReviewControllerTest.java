@@ -0,0 +1,142 @@
+package org.slayscale;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReviewControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private User alice;
+    private User bob;
+    private Product book;
+    private Product phone;
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.save(new User("Alice"));
+        bob = userRepository.save(new User("Bob"));
+        book = productRepository.save(new Product(Category.BOOKS, "https://example.com/book"));
+        phone = productRepository.save(new Product(Category.ELECTRONICS, "https://example.com/phone"));
+    }
+
+    @AfterEach
+    void clean() {
+        reviewRepository.deleteAll();
+        userRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void bulkCreateReviewsFromNdjson() throws Exception {
+        String body = String.join("\n",
+                review(alice.getId(), book.getId(), 5, "loved it"),
+                review(alice.getId(), phone.getId(), 2, "meh"),
+                review(bob.getId(), book.getId(), 4, "good"),
+                review(bob.getId(), 9999L, 4, "no such product"),
+                review(alice.getId(), book.getId(), 7, "too many stars"));
+
+        mockMvc.perform(post("/api/reviews/bulk").contentType(ReviewController.NDJSON_VALUE).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received", is(5)))
+                .andExpect(jsonPath("$.accepted", is(3)))
+                .andExpect(jsonPath("$.rejected", is(2)))
+                .andExpect(jsonPath("$.errors[0].position", is(3)))
+                .andExpect(jsonPath("$.errors[1].position", is(4)));
+
+        assertEquals(3, reviewRepository.count());
+        Product savedBook = productRepository.findById(book.getId()).orElseThrow();
+        assertEquals(2, savedBook.getRatingCount());
+        assertEquals(4.5d, savedBook.getAverageRating());
+        User savedAlice = userRepository.findById(alice.getId()).orElseThrow();
+        User savedBob = userRepository.findById(bob.getId()).orElseThrow();
+        assertEquals(0.5d, savedAlice.getSimilarity(savedBob));
+    }
+
+    @Test
+    void bulkCreateReviewsFromJsonArrayInChunks() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 1_200; i++) {
+            if (i > 0) body.append(',');
+            body.append(review(i % 2 == 0 ? alice.getId() : bob.getId(), phone.getId(), i % 6, "review " + i));
+        }
+        body.append(']');
+
+        mockMvc.perform(post("/api/reviews/bulk").contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted", is(1_200)))
+                .andExpect(jsonPath("$.errors", hasSize(0)));
+
+        assertEquals(1_200, reviewRepository.count());
+        assertEquals(1_200, productRepository.findById(phone.getId()).orElseThrow().getRatingCount());
+    }
+
+    @Test
+    void bulkCreateReviewsMalformed() throws Exception {
+        String body = review(alice.getId(), book.getId(), 5, "fine") + "\n{\"userId\": ";
+        mockMvc.perform(post("/api/reviews/bulk").contentType(ReviewController.NDJSON_VALUE).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.accepted", is(1)))
+                .andExpect(jsonPath("$.message", is("Malformed review at position 1.")));
+        assertEquals(1, reviewRepository.count());
+    }
+
+    @Test
+    void searchReviews() throws Exception {
+        String body = String.join("\n",
+                review(alice.getId(), book.getId(), 5, "A gripping novel"),
+                review(bob.getId(), book.getId(), 2, "Slow novel, not gripping"),
+                review(bob.getId(), phone.getId(), 4, "Gripping battery life"));
+        mockMvc.perform(post("/api/reviews/bulk").contentType(ReviewController.NDJSON_VALUE).content(body))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/reviews/search").param("q", "GRIPPING novel"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].text", is("Slow novel, not gripping")))
+                .andExpect(jsonPath("$[0].authorUsername", is("Bob")))
+                .andExpect(jsonPath("$[1].text", is("A gripping novel")));
+        mockMvc.perform(get("/api/reviews/search").param("q", "gripping").param("category", "ELECTRONICS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].productId", is(phone.getId().intValue())));
+        mockMvc.perform(get("/api/reviews/search").param("q", "gripping").param("minRating", "4").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].rating", is(4)));
+        mockMvc.perform(get("/api/reviews/search").param("q", "nothing"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/reviews/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String review(Long userId, Long productId, int rating, String text) {
+        return String.format("{\"userId\": %d, \"productId\": %d, \"rating\": %d, \"text\": \"%s\"}",
+                userId, productId, rating, text);
+    }
+}
@@ -0,0 +1,132 @@
+package org.slayscale;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReviewSearchIndexTest {
+    private ReviewSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new ReviewSearchIndex();
+        index.add(1, Category.BOOKS, 5, "A gripping, well-written novel.");
+        index.add(2, Category.BOOKS, 2, "Well, the novel dragged on.");
+        index.add(3, Category.ELECTRONICS, 4, "Battery is well above average");
+        index.add(4, Category.BOOKS, 4, "Gripping NOVEL!!");
+    }
+
+    @Test
+    void tokenizeIgnoresCaseAndPunctuation() {
+        assertEquals(List.of("well", "written", "novel"),
+                List.copyOf(ReviewSearchIndex.tokenize("A well-written, WELL novel.")));
+        assertTrue(ReviewSearchIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void searchMatchesEveryWordNewestFirst() {
+        assertArrayEquals(new long[]{4, 2, 1}, index.search("novel", null, 0, 10));
+        assertArrayEquals(new long[]{4, 1}, index.search("Gripping novel", null, 0, 10));
+        assertArrayEquals(new long[]{4}, index.search("novel gripping", null, 0, 1));
+        assertArrayEquals(new long[0], index.search("novel battery", null, 0, 10));
+        assertArrayEquals(new long[0], index.search("unknown", null, 0, 10));
+        assertArrayEquals(new long[0], index.search("!!", null, 0, 10));
+    }
+
+    @Test
+    void searchFiltersByCategoryAndRating() {
+        assertArrayEquals(new long[]{3}, index.search("well", Category.ELECTRONICS, 0, 10));
+        assertArrayEquals(new long[]{2, 1}, index.search("well", Category.BOOKS, 0, 10));
+        assertArrayEquals(new long[]{3, 1}, index.search("well", null, 4, 10));
+        assertArrayEquals(new long[0], index.search("well", Category.CLOTHING, 0, 10));
+    }
+
+    @Test
+    void removedReviewsAreNotFound() {
+        index.remove(4);
+        assertEquals(3, index.size());
+        assertArrayEquals(new long[]{2, 1}, index.search("novel", null, 0, 10));
+    }
+
+    @Test
+    void reAddedReviewsAreFoundOnce() {
+        index.remove(2);
+        index.add(2, Category.BOOKS, 3, "Well, the novel dragged on.");
+        index.add(2, Category.BOOKS, 3, "Well, the novel dragged on.");
+        assertArrayEquals(new long[]{4, 2, 1}, index.search("novel", null, 0, 10));
+        assertArrayEquals(new long[]{2}, index.search("dragged", null, 3, 10));
+    }
+
+    @Test
+    void longPostingListsAreCompressed() {
+        ReviewSearchIndex large = new ReviewSearchIndex();
+        for (long id = 1; id <= 1_000; id++) {
+            large.add(id * 1_000, Category.BOOKS, (int) (id % 6), id % 2 == 0 ? "even review" : "odd review");
+            if (id % 10 == 0) large.remove(id * 1_000);
+        }
+        long[] reviews = large.search("review", null, 0, 2_000);
+        assertEquals(900, reviews.length);
+        assertEquals(999_000, reviews[0]);
+        assertEquals(1_000, reviews[reviews.length - 1]);
+        for (int i = 1; i < reviews.length; i++) {
+            assertTrue(reviews[i] < reviews[i - 1]);
+            assertNotEquals(0, reviews[i] % 10_000);
+        }
+        assertArrayEquals(new long[]{998_000, 996_000}, large.search("even", null, 0, 2));
+    }
+
+    @Test
+    void lateReviewsAreInsertedIntoTheirBlock() {
+        ReviewSearchIndex large = new ReviewSearchIndex();
+        for (long id = 2; id <= 1_000; id += 2) {
+            large.add(id, Category.BOOKS, 3, "review");
+        }
+        for (long id = 1; id <= 1_000; id += 2) {
+            large.add(id, Category.BOOKS, 3, "review");
+        }
+        long[] reviews = large.search("review", null, 0, 2_000);
+        assertEquals(1_000, reviews.length);
+        for (int i = 0; i < reviews.length; i++) {
+            assertEquals(1_000 - i, reviews[i]);
+        }
+    }
+
+    @Test
+    void intersectionSkipsBlocks() {
+        ReviewSearchIndex large = new ReviewSearchIndex();
+        for (long id = 1; id <= 10_000; id++) {
+            large.add(id, Category.BOOKS, 3, (id % 1_000 == 7 ? "common rare" : "common")
+                    + (id % 3 == 0 ? " three" : "") + (id % 5 == 0 ? " five" : ""));
+        }
+        assertArrayEquals(new long[]{9_007, 8_007, 7_007}, large.search("common rare", null, 0, 3));
+        assertArrayEquals(new long[]{9_007, 8_007, 7_007}, large.search("rare common", null, 0, 3));
+        assertEquals(10, large.search("rare common", null, 0, 100).length);
+        assertArrayEquals(new long[0], large.search("common unknown", null, 0, 3));
+        long[] both = large.search("five three", null, 0, 1_000);
+        assertEquals(666, both.length);
+        for (int i = 0; i < both.length; i++) {
+            assertEquals(9_990 - 15 * i, both[i]);
+        }
+    }
+
+    @Test
+    void purgedReviewsCanBeAddedAgain() {
+        ReviewSearchIndex large = new ReviewSearchIndex();
+        for (long id = 1; id <= 3_000; id++) {
+            large.add(id, Category.BOOKS, 3, id <= 1_500 ? "old review" : "new review");
+        }
+        for (long id = 1; id <= 1_500; id++) {
+            large.remove(id); // purges once more than 1,000 are removed
+        }
+        assertArrayEquals(new long[0], large.search("old", null, 0, 10));
+        assertEquals(1_500, large.search("review", null, 0, 5_000).length);
+
+        large.add(5, Category.BOOKS, 3, "old review");
+        large.add(1_200, Category.BOOKS, 3, "old review");
+        assertArrayEquals(new long[]{1_200, 5}, large.search("old review", null, 0, 10));
+        assertEquals(1_502, large.search("review", null, 0, 5_000).length);
+    }
+}
@@ -0,0 +1,127 @@
+package org.slayscale;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SlayScaleViewControllerTest {
+
+    /**
+     * Captures the number of SQL statements of each request, including view rendering.
+     * {@link RequestMetricsInterceptor} clears the count once the request completes, so
+     * this runs after it in the chain and thus completes before it.
+     */
+    @TestConfiguration
+    static class StatementCapture implements WebMvcConfigurer {
+        private volatile int lastCount;
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new HandlerInterceptor() {
+                @Override
+                public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                            Object handler, Exception ex) {
+                    lastCount = SqlStatementCounter.count();
+                }
+            }).order(1);
+        }
+    }
+
+    @Autowired
+    private StatementCapture statementCapture;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private Product product;
+    private final List<User> authors = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        product = productRepository.save(new Product(Category.BOOKS, "https://example.com/book"));
+    }
+
+    @AfterEach
+    void clean() {
+        reviewRepository.deleteAll();
+        userRepository.deleteAll();
+        productRepository.deleteAll();
+        authors.clear();
+    }
+
+    @Test
+    void productDetailQueryCountIsConstant() throws Exception {
+        int withoutReviews = productDetailStatements();
+
+        addReviews(3);
+        int withFewReviews = productDetailStatements();
+
+        addReviews(60);
+        int withManyReviews = productDetailStatements();
+
+        assertEquals(1, withoutReviews);
+        assertEquals(withoutReviews, withFewReviews);
+        assertEquals(withoutReviews, withManyReviews);
+    }
+
+    @Test
+    void productDetailShowsLatestReviewsWithAuthors() throws Exception {
+        addReviews(2);
+        mockMvc.perform(get("/SlayScale/products/{id}", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Author0")))
+                .andExpect(content().string(containsString("Review by author 1")))
+                .andExpect(content().string(not(containsString("Showing the latest"))));
+    }
+
+    @Test
+    void productDetailNotFound() throws Exception {
+        mockMvc.perform(get("/SlayScale/products/{id}", 9999L))
+                .andExpect(status().isNotFound());
+    }
+
+    private int productDetailStatements() throws Exception {
+        mockMvc.perform(get("/SlayScale/products/{id}", product.getId()))
+                .andExpect(status().isOk());
+        return statementCapture.lastCount;
+    }
+
+    // Every review by a different author, so that loading authors one by one would show.
+    private void addReviews(int count) {
+        for (int i = 0; i < count; i++) {
+            User author = userRepository.save(new User("Author" + authors.size()));
+            reviewRepository.save(new Review(author, 4, "Review by author " + authors.size(), product));
+            authors.add(author);
+        }
+    }
+}
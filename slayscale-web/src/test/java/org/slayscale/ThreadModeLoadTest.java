@@ -0,0 +1,158 @@
+package org.slayscale;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares p99 latency and throughput of the platform-thread and virtual-thread modes
+ * under the same burst of requests. Excluded from the default build, run with:
+ * <pre>mvn -Pload-tests test -Dload.requests=20000 -Dload.concurrency=1000</pre>
+ */
+@Tag("load")
+class ThreadModeLoadTest {
+    private static final Logger log = LoggerFactory.getLogger(ThreadModeLoadTest.class);
+    private static final int USERS = Integer.getInteger("load.users", 2000);
+    private static final int PRODUCTS = Integer.getInteger("load.products", 200);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 5000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 400);
+
+    record Result(String mode, int requests, int failures, int rejected, double seconds, long p50Micros, long p99Micros) {
+        double throughput() {
+            return requests / seconds;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-9s %7d requests %6d failed %6d rejected %9.1f req/s  p50 %7.2f ms  p99 %8.2f ms",
+                    mode, requests, failures, rejected, throughput(), p50Micros / 1000.0, p99Micros / 1000.0);
+        }
+    }
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Result platform = run("platform", new String[]{"--spring.threads.virtual.enabled=false"});
+        Result virtual = run("virtual", new String[]{"--spring.profiles.active=virtual-threads"});
+
+        log.info("{}", platform);
+        log.info("{}", virtual);
+        assertEquals(0, platform.failures());
+        assertEquals(0, virtual.failures());
+    }
+
+    private static Result run(String mode, String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(List.of(args));
+        arguments.add("--server.port=0");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SlayScaleApplication.class)
+                .run(arguments.toArray(String[]::new))) {
+            seed(context);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<URI> targets = targets(port);
+
+            try (HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+                burst(mode, client, targets, Math.min(REQUESTS, 500)); // warm-up
+                return burst(mode, client, targets, REQUESTS);
+            }
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        UserRepository users = context.getBean(UserRepository.class);
+        ProductRepository products = context.getBean(ProductRepository.class);
+        Random random = new Random(42);
+        Category[] categories = Category.values();
+
+        List<Product> savedProducts = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            savedProducts.add(new Product(categories[i % categories.length], "https://example.com/product/" + i));
+        }
+        savedProducts = products.saveAll(savedProducts);
+
+        List<User> savedUsers = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("user" + i);
+            for (int r = 0; r < 5; r++) {
+                Product product = savedProducts.get(random.nextInt(savedProducts.size()));
+                user.addReview(new Review(user, 1 + random.nextInt(5), "review", product));
+            }
+            savedUsers.add(user);
+        }
+        savedUsers = users.saveAll(savedUsers);
+        for (User user : savedUsers) {
+            for (int f = 0; f < 5; f++) {
+                User target = savedUsers.get(random.nextInt(savedUsers.size()));
+                if (target != user && !user.getFollowing().contains(target)) user.follow(target);
+            }
+        }
+        users.saveAll(savedUsers);
+    }
+
+    private static List<URI> targets(int port) {
+        String base = "http://localhost:" + port;
+        List<URI> targets = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            targets.add(URI.create(base + "/api/users/" + i));
+            targets.add(URI.create(base + "/api/users/" + i + "/followers"));
+            targets.add(URI.create(base + "/api/products/" + i));
+        }
+        targets.add(URI.create(base + "/api/users?sortStrategy=MOST_FOLLOWED&limit=20"));
+        targets.add(URI.create(base + "/api/users?sortStrategy=SIMILARITY&similarityMode=APPROXIMATE&baseUserId=1"));
+        targets.add(URI.create(base + "/SlayScale/users?sortStrategy=MOST_FOLLOWED"));
+        targets.add(URI.create(base + "/SlayScale/products"));
+        return targets;
+    }
+
+    /** Send {@code requests} requests from {@value #CONCURRENCY} concurrent clients, round-robin over the targets. */
+    private static Result burst(String mode, HttpClient client, List<URI> targets, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicLong completed = new AtomicLong();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CONCURRENCY; c++) {
+                clients.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        HttpRequest request = HttpRequest.newBuilder(targets.get(i % targets.size())).GET().build();
+                        long sent = System.nanoTime();
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status == 503) rejected.incrementAndGet();
+                            else if (status >= 500) failures.incrementAndGet();
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - sent;
+                        completed.incrementAndGet();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(latencies);
+        return new Result(mode, (int) completed.get(), failures.get(), rejected.get(), seconds,
+                latencies[(int) (requests * 0.50)] / 1000, latencies[Math.min(requests - 1, (int) (requests * 0.99))] / 1000);
+    }
+}
@@ -0,0 +1,512 @@
+package org.slayscale;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.*;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UserController.class)
+@Import({AnalyticsConfig.class, SimilarityIndex.class, FollowGraphService.class, FollowService.class, TrustRankService.class})
+public class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @MockBean
+    private ProductRepository productRepository;
+
+    @MockBean
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SimilarityIndex similarityIndex;
+
+    @Autowired
+    private TrustRankService trustRankService;
+
+    @Autowired
+    private FollowGraphService followGraphService;
+
+    private User user1;
+    private User user2;
+    private User user3;
+    private User user4;
+    private Product product1;
+    private Product product2;
+    private Review review1;
+
+    @BeforeEach
+    void setup() {
+        // Mock users
+        user1 = new User("Alice");
+        user1.setId(1L);
+
+        user2 = new User("Bob");
+        user2.setId(2L);
+
+        user3 = new User("Charlie");
+        user3.setId(3L);
+
+        user4 = new User("Don");
+        user4.setId(4L);
+
+        // Mock products
+        product1 = new Product(Category.ELECTRONICS, "https://example.com/product");
+        product1.setId(50L);
+
+        product2 = new Product(Category.BOOKS, "https://example.com/book");
+        product2.setId(51L);
+
+        // Mock review for user1
+        review1 = new Review(user1, 5, "Great!", product1);
+        review1.setId(61L);
+        user1.addReview(review1);
+        product1.addReview(review1);
+
+        // Stub repository calls
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(userRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(user1));
+        when(productRepository.findById(50L)).thenReturn(Optional.of(product1));
+        when(productRepository.findByIdForUpdate(50L)).thenReturn(Optional.of(product1));
+
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
+        when(userRepository.findById(3L)).thenReturn(Optional.of(user3));
+        when(userRepository.findById(4L)).thenReturn(Optional.of(user4));
+        when(userRepository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(userRepository::findById).flatMap(Optional::stream)
+                    .map(user -> new UserSummary(user.getId(), user.getUsername())).toList();
+        });
+        followGraphService.load(); // start each test from an empty follow graph
+    }
+    
+    @Test
+    void testGetAllUsers() throws Exception {
+        when(userRepository.findAll()).thenReturn(Arrays.asList(user1, user2));
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].username", is("Alice")))
+                .andExpect(jsonPath("$[1].username", is("Bob")));
+    }
+
+    @Test
+    void testGetAllUsersSortedBySimilarity() throws Exception {
+        user3.addReview(new Review(user3, 4, "Nice", product1));
+        user3.addReview(new Review(user3, 4, "Fine", product2));
+        when(userRepository.findAll()).thenReturn(Arrays.asList(user2, user3, user1));
+        mockMvc.perform(get("/api/users").param("sortStrategy", "SIMILARITY").param("baseUserId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].username", is("Alice")))
+                .andExpect(jsonPath("$[1].username", is("Charlie")))
+                .andExpect(jsonPath("$[2].username", is("Bob")));
+
+        mockMvc.perform(get("/api/users").param("sortStrategy", "SIMILARITY"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAllUsersSortedBySimilarityPaged() throws Exception {
+        user3.addReview(new Review(user3, 4, "Nice", product1));
+        user3.addReview(new Review(user3, 4, "Fine", product2));
+        when(userRepository.findAll()).thenReturn(Arrays.asList(user2, user3, user1));
+        String next = UserCursor.atOffset(UserSortStrategy.SIMILARITY, 2).encode();
+
+        mockMvc.perform(get("/api/users").param("sortStrategy", "SIMILARITY").param("baseUserId", "1").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(UserController.NEXT_CURSOR_HEADER, next))
+                .andExpect(jsonPath("$[*].username", contains("Alice", "Charlie")));
+        mockMvc.perform(get("/api/users").param("sortStrategy", "SIMILARITY").param("baseUserId", "1")
+                        .param("limit", "2").param("cursor", next))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(UserController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].username", is("Bob")));
+
+        // a keyset cursor from another ordering is rejected
+        String keyset = UserCursor.after(UserSortStrategy.MOST_FOLLOWED, user1).encode();
+        mockMvc.perform(get("/api/users").param("sortStrategy", "SIMILARITY").param("baseUserId", "1").param("cursor", keyset))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAllUsersApproximateSimilarity() throws Exception {
+        user3.addReview(new Review(user3, 4, "Nice", product1));
+        user4.addReview(new Review(user4, 1, "Nope", product2));
+        similarityIndex.onReviewCreated(new ReviewCreatedEvent(70L, 1L, 50L, Category.ELECTRONICS, 5, "Great!",
+                user1.getReviewedProductIds()));
+        similarityIndex.onReviewCreated(new ReviewCreatedEvent(71L, 3L, 50L, Category.ELECTRONICS, 4, "Great!",
+                user3.getReviewedProductIds()));
+        similarityIndex.onReviewCreated(new ReviewCreatedEvent(72L, 4L, 51L, Category.BOOKS, 1, "Fine",
+                user4.getReviewedProductIds()));
+        when(userRepository.findAllById(List.of(3L))).thenReturn(List.of(user3));
+        clearInvocations(userRepository);
+
+        mockMvc.perform(get("/api/users")
+                        .param("sortStrategy", "SIMILARITY")
+                        .param("baseUserId", "1")
+                        .param("similarityMode", "APPROXIMATE")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].username", is("Charlie")));
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetSimilarUsers() throws Exception {
+        user3.addReview(new Review(user3, 4, "Nice", product1));
+        user3.addReview(new Review(user3, 4, "Fine", product2));
+        user4.addReview(new Review(user4, 1, "Nope", product2));
+        similarityIndex.onReviewCreated(new ReviewCreatedEvent(70L, 1L, 50L, Category.ELECTRONICS, 5, "Great!",
+                user1.getReviewedProductIds()));
+        similarityIndex.onReviewCreated(new ReviewCreatedEvent(71L, 3L, 51L, Category.BOOKS, 4, "Fine",
+                user3.getReviewedProductIds()));
+        similarityIndex.onReviewCreated(new ReviewCreatedEvent(72L, 4L, 51L, Category.BOOKS, 1, "Fine",
+                user4.getReviewedProductIds()));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        clearInvocations(userRepository);
+
+        mockMvc.perform(get("/api/users/1/similar").param("k", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(3)))
+                .andExpect(jsonPath("$[0].username", is("Charlie")))
+                .andExpect(jsonPath("$[0].similarity", is(0.5)));
+        verify(userRepository, never()).findAll();
+
+        mockMvc.perform(get("/api/users/1/similar").param("k", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/9/similar")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetAllUsersKeysetPage() throws Exception {
+        user2.setFollowerCount(2);
+        user1.setFollowerCount(1);
+        when(userRepository.findPageByFollowerCount(eq(Integer.MAX_VALUE), eq(0L), any()))
+                .thenReturn(new ArrayList<>(List.of(user2, user1, user3)));
+        String next = UserCursor.after(UserSortStrategy.MOST_FOLLOWED, user1).encode();
+
+        mockMvc.perform(get("/api/users").param("sortStrategy", "MOST_FOLLOWED").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(UserController.NEXT_CURSOR_HEADER, next))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].username", is("Bob")))
+                .andExpect(jsonPath("$[1].username", is("Alice")));
+
+        when(userRepository.findPageByFollowerCount(eq(1), eq(1L), any()))
+                .thenReturn(new ArrayList<>(List.of(user3)));
+        mockMvc.perform(get("/api/users").param("sortStrategy", "MOST_FOLLOWED").param("limit", "2").param("cursor", next))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(UserController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[0].username", is("Charlie")));
+
+        // a cursor issued for a different ordering is rejected
+        mockMvc.perform(get("/api/users").param("cursor", next))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetUserByIdFound() throws Exception {
+        when(userRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"user-1-4\""))
+                .andExpect(jsonPath("$.username", is("Alice")))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+
+    @Test
+    void testGetUserByIdNotModified() throws Exception {
+        when(userRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+        mockMvc.perform(get("/api/users/1").header("If-None-Match", "\"user-1-4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(userRepository, never()).findById(1L);
+
+        // a follow bumps the version
+        when(userRepository.findVersionById(1L)).thenReturn(Optional.of(5L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        mockMvc.perform(get("/api/users/1").header("If-None-Match", "\"user-1-4\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"user-1-5\""));
+    }
+
+    @Test
+    void testGetUserByIdNotFound() throws Exception {
+        when(userRepository.findById(3L)).thenReturn(Optional.empty());
+        mockMvc.perform(get("/api/users/3"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testCreateUserSuccess() throws Exception {
+        Map<String, String> body = Map.of("username", "Charlie");
+        when(userRepository.findByUsername("Charlie")).thenReturn(Optional.empty());
+        User savedUser = new User("Charlie");
+        savedUser.setId(3L);
+        when(userRepository.save(org.mockito.ArgumentMatchers.any(User.class))).thenReturn(savedUser);
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated()) // endpoint returns 201
+                .andExpect(jsonPath("$.id", is(3)))
+                .andExpect(jsonPath("$.username", is("Charlie")));
+    }
+
+    @Test
+    void testCreateUserFailDuplicate() throws Exception {
+        Map<String, String> body = Map.of("username", "Alice");
+        when(userRepository.findByUsername("Alice")).thenReturn(Optional.of(user1));
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFollowUserSuccess() throws Exception {
+        when(userRepository.insertFollow(3L, 4L)).thenReturn(1);
+        mockMvc.perform(post("/api/users/3/follow/4"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Charlie is now following Don"));
+        verify(userRepository, times(1)).adjustFollowCounts(3L, 4L, 1);
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void testGetAllUsersMostTrusted() throws Exception {
+        when(userRepository.insertFollow(anyLong(), anyLong())).thenReturn(1);
+        // Bob and Don both have one follower, but Bob's is followed by everyone else
+        mockMvc.perform(post("/api/users/1/follow/2")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/users/3/follow/1")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/users/4/follow/1")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/users/2/follow/4")).andExpect(status().isOk());
+        trustRankService.recompute();
+
+        when(userRepository.findAll()).thenReturn(Arrays.asList(user4, user3, user2, user1));
+        mockMvc.perform(get("/api/users").param("sortStrategy", "MOST_TRUSTED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].username", contains("Alice", "Bob", "Don", "Charlie")));
+
+        when(userRepository.count()).thenReturn(4L);
+        when(userRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(user2, user1));
+        String next = mockMvc.perform(get("/api/users").param("sortStrategy", "MOST_TRUSTED").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(UserController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[*].username", contains("Alice", "Bob")))
+                .andReturn().getResponse().getHeader(UserController.NEXT_CURSOR_HEADER);
+
+        when(userRepository.findAllById(List.of(1L, 2L, 4L, 3L))).thenReturn(List.of(user4, user3, user2, user1));
+        mockMvc.perform(get("/api/users").param("sortStrategy", "MOST_TRUSTED").param("limit", "2").param("cursor", next))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(UserController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$[*].username", contains("Don", "Charlie")));
+
+        mockMvc.perform(get("/api/users").param("sortStrategy", "MOST_TRUSTED").param("cursor", "abc"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/trust/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.converged", is(true)))
+                .andExpect(jsonPath("$.users", greaterThanOrEqualTo(4)));
+    }
+
+    @Test
+    void testSeparation() throws Exception {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(userRepository.existsById(9L)).thenReturn(false);
+        when(userRepository.insertFollow(anyLong(), anyLong())).thenReturn(1);
+        when(userRepository.deleteFollow(anyLong(), anyLong())).thenReturn(1);
+        mockMvc.perform(post("/api/users/1/follow/2")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/users/2/follow/3")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/users/1/separation/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.degree", is(2)));
+        mockMvc.perform(get("/api/users/3/separation/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.degree", is(-1)));
+        mockMvc.perform(get("/api/users/1/separation/3").param("maxDepth", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.degree", is(-1)));
+
+        mockMvc.perform(post("/api/users/2/unfollow/3")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/1/separation/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.degree", is(-1)));
+
+        mockMvc.perform(get("/api/users/1/separation/9")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/1/separation/3").param("maxDepth", "100")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testFollowUserAlreadyFollowing() throws Exception {
+        when(userRepository.insertFollow(3L, 4L)).thenReturn(0);
+        mockMvc.perform(post("/api/users/3/follow/4"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Charlie is already following Don"));
+        verify(userRepository, never()).adjustFollowCounts(anyLong(), anyLong(), anyInt());
+
+        // a concurrent request inserted the same follow first
+        when(userRepository.insertFollow(3L, 4L)).thenThrow(new DataIntegrityViolationException("duplicate"));
+        mockMvc.perform(post("/api/users/3/follow/4"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Charlie is already following Don"));
+    }
+
+    @Test
+    void testFollowUserFollowSelf() throws Exception {
+        mockMvc.perform(post("/api/users/1/follow/1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("User cannot follow themselves"));
+    }
+
+    @Test
+    void testFollowUserUserNotFound() throws Exception {
+        when(userRepository.findById(3L)).thenReturn(Optional.empty());
+        mockMvc.perform(post("/api/users/3/follow/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    // UNFOLLOW TESTS
+    @Test
+    void testUnfollowUserSuccess() throws Exception {
+        when(userRepository.deleteFollow(1L, 2L)).thenReturn(1);
+
+        mockMvc.perform(post("/api/users/1/unfollow/2"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Alice has unfollowed Bob"));
+
+        verify(userRepository, times(1)).adjustFollowCounts(1L, 2L, -1);
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void testUnfollowUserNotFollowing() throws Exception {
+        mockMvc.perform(post("/api/users/1/unfollow/2"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Alice isn't following Bob"));
+    }
+
+    @Test
+    void testUnfollowUserUnfollowSelf() throws Exception {
+        mockMvc.perform(post("/api/users/1/unfollow/1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("User cannot unfollow themselves"));
+    }
+
+    @Test
+    void testUnfollowUserUserNotFound() throws Exception {
+        when(userRepository.findById(3L)).thenReturn(Optional.empty());
+        mockMvc.perform(post("/api/users/3/unfollow/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetFollowers() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.findFollowerSummaries(eq(1L), eq(0L), any()))
+                .thenReturn(List.of(new UserSummary(2L, "Bob")));
+        mockMvc.perform(get("/api/users/1/followers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(jsonPath("$[0].username", is("Bob")));
+    }
+
+    @Test
+    void testGetFollowing() throws Exception {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.findFollowingSummaries(eq(1L), eq(2L), any()))
+                .thenReturn(List.of(new UserSummary(3L, "Charlie")));
+        mockMvc.perform(get("/api/users/1/following").param("afterId", "2").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].username", is("Charlie")));
+        verify(userRepository, never()).findById(1L);
+    }
+
+    @Test
+    void testGetFollowersNotFound() throws Exception {
+        mockMvc.perform(get("/api/users/9/followers")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/9/following")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testCreateReviewSuccess() throws Exception {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        when(productRepository.findByIdForUpdate(50L)).thenReturn(Optional.of(product1));
+        Map<String, Object> reviewBody = Map.of(
+                "productId", product1.getId(),
+                "rating", 2,
+                "text", "Meh!"
+        );
+        mockMvc.perform(post("/api/users/1/review")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(reviewBody)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.rating").value(2))
+                .andExpect(jsonPath("$.text").value("Meh!"))
+                .andExpect(jsonPath("$.productId").value(50));
+        assertEquals(2, product1.getRatingCount());
+        assertEquals(7, product1.getRatingSum());
+    }
+
+    @Test
+    void testGetReviews() throws Exception {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        mockMvc.perform(get("/api/users/1/reviews"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].rating", is(5)));
+    }
+
+    @Test
+    void testDeleteReviewSuccess() throws Exception {
+        when(reviewRepository.findByIdAndAuthorId(61L, 1L)).thenReturn(Optional.of(review1));
+        mockMvc.perform(delete("/api/users/1/review/61"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Review deleted successfully"));
+        verify(reviewRepository, times(1)).delete(review1);
+        verify(userRepository, never()).findById(1L);
+        assertEquals(0, product1.getRatingCount());
+        assertArrayEquals(new long[0], user1.getReviewedProductIds());
+    }
+
+    @Test
+    void testDeleteReviewOfAnotherUser() throws Exception {
+        when(reviewRepository.findByIdAndAuthorId(61L, 1L)).thenReturn(Optional.of(review1));
+        mockMvc.perform(delete("/api/users/2/review/61")).andExpect(status().isNotFound());
+        verify(reviewRepository, never()).delete(any());
+        assertEquals(1, product1.getRatingCount());
+    }
+
+    @Test
+    void testDeleteReviewNotFound() throws Exception {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user1));
+        mockMvc.perform(delete("/api/users/1/review/999")).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,120 @@
+package org.slayscale;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class UserRepositoryTest {
+
+    @Autowired
+    UserRepository repo;
+
+    private User alice;
+    private User bob;
+    private User charlie;
+    private User don;
+
+    @BeforeEach
+    void setUp() {
+        alice = new User("Alice");
+        alice.setFollowerCount(3);
+        bob = new User("Bob");
+        bob.setFollowerCount(5);
+        charlie = new User("Charlie");
+        charlie.setFollowerCount(3);
+        don = new User("Don");
+        repo.saveAll(List.of(alice, bob, charlie, don));
+    }
+
+    private static List<String> usernames(List<User> users) {
+        return users.stream().map(User::getUsername).toList();
+    }
+
+    @Test
+    void findAllOrderedByFollowerCount() {
+        assertEquals(List.of("Bob", "Alice", "Charlie", "Don"), usernames(repo.findAllByOrderByFollowerCountDescIdAsc()));
+    }
+
+    @Test
+    void findPageByFollowerCount() {
+        UserCursor start = UserCursor.start(UserSortStrategy.MOST_FOLLOWED);
+        List<User> first = repo.findPageByFollowerCount(start.followerCount(), start.id(), PageRequest.of(0, 2));
+        assertEquals(List.of("Bob", "Alice"), usernames(first));
+
+        UserCursor next = UserCursor.after(UserSortStrategy.MOST_FOLLOWED, first.get(1));
+        List<User> second = repo.findPageByFollowerCount(next.followerCount(), next.id(), PageRequest.of(0, 2));
+        assertEquals(List.of("Charlie", "Don"), usernames(second));
+    }
+
+    @Test
+    void versionIsBumpedOnEveryUpdate() {
+        repo.flush();
+        long version = repo.findVersionById(alice.getId()).orElseThrow();
+
+        alice.addReviewedProductId(42L);
+        repo.flush();
+        assertEquals(version + 1, repo.findVersionById(alice.getId()).orElseThrow());
+
+        // the bulk follow counter update bumps both users
+        long bobVersion = repo.findVersionById(bob.getId()).orElseThrow();
+        repo.adjustFollowCounts(alice.getId(), bob.getId(), 1);
+        assertEquals(version + 2, repo.findVersionById(alice.getId()).orElseThrow());
+        assertEquals(bobVersion + 1, repo.findVersionById(bob.getId()).orElseThrow());
+        assertEquals(version, repo.findVersionById(charlie.getId()).orElseThrow());
+    }
+
+    @Test
+    void sqlStatementsAreCounted() {
+        repo.flush();
+        SqlStatementCounter.reset();
+        repo.findAllByOrderByFollowerCountDescIdAsc();
+        repo.findPageAfterId(0, PageRequest.of(0, 2));
+        assertEquals(2, SqlStatementCounter.count());
+        SqlStatementCounter.clear();
+    }
+
+    @Test
+    void findAllFollowEdges() {
+        alice.follow(bob);
+        don.follow(bob);
+        repo.saveAllAndFlush(List.of(alice, bob, don));
+
+        List<Object[]> edges = repo.findAllFollowEdges();
+        assertEquals(2, edges.size());
+        for (Object[] edge : edges) {
+            assertEquals(bob.getId(), ((Number) edge[1]).longValue());
+        }
+    }
+
+    @Test
+    void findFollowerAndFollowingSummaries() {
+        alice.follow(bob);
+        charlie.follow(bob);
+        don.follow(bob);
+        bob.follow(alice);
+        repo.saveAllAndFlush(List.of(alice, bob, charlie, don));
+
+        assertEquals(List.of(new UserSummary(alice.getId(), "Alice"), new UserSummary(charlie.getId(), "Charlie")),
+                repo.findFollowerSummaries(bob.getId(), 0L, PageRequest.of(0, 2)));
+        assertEquals(List.of(new UserSummary(don.getId(), "Don")),
+                repo.findFollowerSummaries(bob.getId(), charlie.getId(), PageRequest.of(0, 2)));
+        assertEquals(List.of(new UserSummary(alice.getId(), "Alice")),
+                repo.findFollowingSummaries(bob.getId(), 0L, PageRequest.of(0, 10)));
+        assertEquals(List.of(new UserSummary(bob.getId(), "Bob")),
+                repo.findFollowingSummaries(don.getId(), 0L, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void findPageAfterId() {
+        List<User> first = repo.findPageAfterId(0L, PageRequest.of(0, 3));
+        assertEquals(List.of("Alice", "Bob", "Charlie"), usernames(first));
+        assertEquals(List.of("Don"), usernames(repo.findPageAfterId(charlie.getId(), PageRequest.of(0, 3))));
+    }
+}
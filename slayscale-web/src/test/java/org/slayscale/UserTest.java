@@ -57,6 +57,36 @@ public class UserTest {
         assertEquals(1.0d, u1.getSimilarity(u2));
     }
 
+    @Test
+    void getSimilarityAfterRemovingReviews() {
+        Product p1 = new Product(Category.BOOKS, "https://a.co/d/emAuUNh");
+        Product p2 = new Product(Category.BOOKS, "https://a.co/d/fJIJBiG");
+        p1.setId(1L);
+        p2.setId(2L);
+
+        User u1 = new User("Jian_Yang");
+        User u2 = new User("Gavin_Belson");
+
+        Review first = new Review(u1, 4, "pretty good", p1);
+        Review again = new Review(u1, 2, "changed my mind", p1);
+        u1.addReview(first);
+        u1.addReview(again);
+        u1.addReview(new Review(u1, 3, "ok", p2));
+        u2.addReview(new Review(u2, 5, "amazing", p1));
+        assertEquals(0.5d, u1.getSimilarity(u2));
+        assertArrayEquals(new long[]{1L, 1L, 2L}, u1.getReviewedProductIds());
+
+        // u1 still has a review of p1 after removing one of them
+        u1.removeReview(first);
+        assertEquals(0.5d, u1.getSimilarity(u2));
+
+        u1.removeReview(again);
+        assertEquals(0.0d, u1.getSimilarity(u2));
+        assertArrayEquals(new long[]{2L}, u1.getReviewedProductIds());
+
+        assertThrows(IllegalArgumentException.class, () -> u1.getSimilarity(null));
+    }
+
     @Test
     void getSetId() {
         user.setId(1L);
@@ -1,11 +0,0 @@
-package org.slayscale;
-
-import org.springframework.data.jpa.repository.JpaRepository;
-
-import java.util.List;
-import java.util.Optional;
-
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    Optional<Product> findByUrl(String url);
-    List<Product> findByCategory(Category category);
-}
@@ -1,7 +0,0 @@
-package org.slayscale;
-import org.springframework.data.repository.CrudRepository;
-import java.util.Optional;
-
-public interface UserRepository extends CrudRepository<User, Long> {
-    Optional<User> findByUsername(String username);
-}